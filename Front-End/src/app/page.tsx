@@ -39,13 +39,25 @@ export default function ProjectManagement() {
     fetchProjects();
   }, []);
 
+  // A listagem é paginada por cursor: segue o X-Next-Cursor até a última página
   const fetchProjects = async () => {
     try {
-      const response = await fetch("http://localhost:8080/api/projects");
-      if (!response.ok) {
-        throw new Error("Erro ao carregar projetos");
-      }
-      const data = await response.json();
+      const data: Project[] = [];
+      let cursor: string | null = null;
+      do {
+        const params = new URLSearchParams({ size: "200" });
+        if (cursor) {
+          params.set("cursor", cursor);
+        }
+        const response = await fetch(
+          `http://localhost:8080/api/projects?${params}`
+        );
+        if (!response.ok) {
+          throw new Error("Erro ao carregar projetos");
+        }
+        data.push(...(await response.json()));
+        cursor = response.headers.get("X-Next-Cursor");
+      } while (cursor);
       setProjects(data);
       setAllProjects(data);
       return data;
@@ -0,0 +1,58 @@
+package secretaria.servidor.benchmark;
+
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Massa de dados determinística para os benchmarks (mesma semente em todas as execuções).
+ */
+final class BenchmarkData {
+
+    private static final String[] TEAMS = {"ADMFIN", "ADMPLN", "ADMAPO"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Gera projetos com entre 0 e {@code maxTasksPerProject} tarefas cada.
+     */
+    static List<Project> projects(int projectCount, int maxTasksPerProject) {
+        Random random = new Random(42);
+        List<Project> projects = new ArrayList<>(projectCount);
+        for (long i = 1; i <= projectCount; i++) {
+            Project project = new Project();
+            project.setId(i);
+            project.setName("Projeto de Modernização " + i);
+            project.setDescription("Descrição do projeto " + i + " com algum texto para o campo TEXT da tabela.");
+            project.setStartDate(LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)));
+            project.setEndDate(project.getStartDate().plusDays(30 + random.nextInt(300)));
+            project.setTeamResponsible(TEAMS[random.nextInt(TEAMS.length)]);
+            project.setStatus(ProjectStatus.values()[random.nextInt(ProjectStatus.values().length)]);
+
+            int taskCount = maxTasksPerProject == 0 ? 0 : random.nextInt(maxTasksPerProject + 1);
+            List<Task> tasks = new ArrayList<>(taskCount);
+            for (int j = 0; j < taskCount; j++) {
+                Task task = new Task();
+                task.setId(i * 1_000 + j);
+                task.setTitle("Tarefa " + j + " do projeto " + i);
+                task.setDescription("Detalhamento da tarefa " + j);
+                task.setResponsible(TaskResponsible.values()[random.nextInt(TaskResponsible.values().length)]);
+                task.setDueDays(random.nextInt(60));
+                task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                task.setProject(project);
+                tasks.add(task);
+            }
+            project.setTasks(tasks);
+            projects.add(project);
+        }
+        return projects;
+    }
+}
@@ -0,0 +1,130 @@
+package secretaria.servidor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import secretaria.servidor.ProjectManagementApplication;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.repository.ProjectRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão e latência (p99 no modo SampleTime) dos endpoints de projetos com muitos clientes
+ * simultâneos, comparando o pool de threads padrão do Tomcat com threads virtuais + limitador
+ * de conexões, e com/sem compressão da resposta (acceptEncoding). Os bulkheads ficam desligados por
+ * padrão: com 400 clientes a maioria receberia 429 (com bulkhead=true esses 429 contam como operações,
+ * o que mede a recusa rápida e não o endpoint). Sobe a aplicação inteira numa
+ * porta aleatória; por padrão usa H2 em memória,
+ * mas para números representativos aponte para um PostgreSQL:
+ * <pre>
+ * mvn -Pjmh -DskipTests test-compile exec:exec -Djmh.args="ExecutionModel -p jdbcUrl=jdbc:postgresql://localhost:5432/bench"
+ * </pre>
+ * O modo "virtual" exige rodar a JVM em Java 21+.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ExecutionModelBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10"})
+    private int poolSize;
+
+    /**
+     * Accept-Encoding enviado pelo cliente: "gzip" mede com a resposta comprimida pelo Tomcat.
+     */
+    @Param({"identity", "gzip"})
+    private String acceptEncoding;
+
+    /**
+     * Vazio usa um H2 em memória com o schema criado pelas migrations do Flyway.
+     */
+    @Param({""})
+    private String jdbcUrl;
+
+    @Param({"false"})
+    private boolean bulkhead;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void start() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("O modo virtual exige Java 21+ (JVM atual: " + Runtime.version() + ")");
+        }
+
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "app.bulkhead.enabled=" + bulkhead,
+                "logging.level.root=WARN"));
+        if (jdbcUrl.isEmpty()) {
+            properties.add("spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.add("spring.datasource.driver-class-name=org.h2.Driver");
+            properties.add("spring.datasource.username=sa");
+            properties.add("spring.datasource.password=");
+            properties.add("spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            properties.add("spring.datasource.url=" + jdbcUrl);
+        }
+
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .profiles(virtual ? "virtual-threads" : "default")
+                .properties(properties.toArray(String[]::new))
+                .run();
+
+        List<Project> projects = BenchmarkData.projects(500, 10);
+        projects.forEach(project -> {
+            project.setId(null);
+            project.getTasks().forEach(task -> task.setId(null));
+        });
+        context.getBean(ProjectRepository.class).saveAll(projects);
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listProjects() throws Exception {
+        return get("/api/projects?size=20");
+    }
+
+    @Benchmark
+    public int projectSummariesByStatus() throws Exception {
+        return get("/api/projects/summary/status/EM_EXECUCAO");
+    }
+
+    private int get(String path) throws Exception {
+        HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Accept-Encoding", acceptEncoding)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 && !(bulkhead && response.statusCode() == 429)) {
+            throw new IllegalStateException("GET " + path + " respondeu " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
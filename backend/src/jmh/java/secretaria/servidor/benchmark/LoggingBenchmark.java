@@ -0,0 +1,127 @@
+package secretaria.servidor.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import secretaria.servidor.logging.LogSamplingTurboFilter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Quanto o log da requisição custa na thread da requisição quando a saída é lenta
+ * (stdout redirecionado para um coletor atrasado, disco cheio...).
+ *
+ * A "requisição" faz o que o TaskService faz numa atualização: duas mensagens INFO com
+ * parâmetros. A saída codifica o JSON de verdade (LogstashEncoder) e depois espera
+ * {@code sinkDelayMicros} por evento, segurando o lock do appender como o ConsoleAppender.
+ *
+ * - {@code sync}: appender direto, como o CONSOLE fora do profile prod;
+ * - {@code async}: o AsyncAppender do profile prod (fila de 8192, descarta INFO com menos de 20% livre);
+ * - {@code async-sampled}: o mesmo, com a amostragem de 1 a cada 10 do profile prod.
+ *
+ * Com a saída lenta, o p99 do {@code sync} acompanha o atraso da saída; os assíncronos
+ * ficam no custo de enfileirar (ou de descartar).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    private String pipeline;
+
+    @Param({"0", "200"})
+    private long sinkDelayMicros;
+
+    private LoggerContext context;
+    private Logger logger;
+    private long taskId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        SlowSink sink = new SlowSink(encoder, TimeUnit.MICROSECONDS.toNanos(sinkDelayMicros));
+        sink.setContext(context);
+        sink.setName("SLOW");
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if (pipeline.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(false);
+            async.setIncludeCallerData(false);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+        if (pipeline.equals("async-sampled")) {
+            LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.setLogger("secretaria.servidor.service.TaskService");
+            sampling.setRate(10);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        logger = context.getLogger("secretaria.servidor.service.TaskService");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) {
+        long id = ++taskId;
+        logger.info("Atualizando tarefa ID: {}", id);
+        blackhole.consume(id);
+        logger.info("Atualizando status da tarefa ID: {} para {}", id, "FINALIZADO");
+    }
+
+    /**
+     * Saída lenta: codifica o evento e espera o atraso configurado com o lock do appender.
+     */
+    private static final class SlowSink extends AppenderBase<ILoggingEvent> {
+
+        private final LogstashEncoder encoder;
+        private final long delayNanos;
+
+        private SlowSink(LogstashEncoder encoder, long delayNanos) {
+            this.encoder = encoder;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            encoder.encode(event);
+            if (delayNanos > 0) {
+                LockSupport.parkNanos(delayNanos);
+            }
+        }
+    }
+}
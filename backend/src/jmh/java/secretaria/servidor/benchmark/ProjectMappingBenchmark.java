@@ -0,0 +1,78 @@
+package secretaria.servidor.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.dto.mapper.ProjectMapper;
+import secretaria.servidor.entity.Project;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do caminho de leitura por requisição: entidade -> DTO (ProjectMapper/ProjectDTO.fromEntity),
+ * DTO -> JSON e JSON -> DTO (Jackson, com acesso por reflexão ou pelo módulo Blackbird).
+ *
+ * Rodar com -prof gc para ver a taxa de alocação (gc.alloc.rate.norm = bytes por operação).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ProjectMappingBenchmark {
+
+    private static final TypeReference<List<ProjectDTO>> PROJECT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "10000"})
+    private int projectCount;
+
+    /**
+     * Cada projeto recebe entre 0 e este número de tarefas.
+     */
+    @Param({"0", "20", "200"})
+    private int maxTasksPerProject;
+
+    /**
+     * "reflection" é o Jackson padrão; "blackbird" gera os acessores com LambdaMetafactory (JacksonConfig).
+     */
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    private ObjectMapper objectMapper;
+    private List<Project> projects;
+    private List<ProjectDTO> dtos;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(accessors)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        projects = BenchmarkData.projects(projectCount, maxTasksPerProject);
+        dtos = ProjectMapper.toListDTO(projects);
+        json = objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<ProjectDTO> entityToDto() {
+        return ProjectMapper.toListDTO(projects);
+    }
+
+    @Benchmark
+    public byte[] dtoToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<ProjectDTO> jsonToDto() throws Exception {
+        return objectMapper.readValue(json, PROJECT_LIST);
+    }
+}
@@ -0,0 +1,56 @@
+package secretaria.servidor.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.service.search.ProjectSearchIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da busca por nome no índice de trigramas com até 1M de projetos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ProjectSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "Projeto", "Gestão", "Orçamentária", "Reforma", "Sede", "Licitação", "Contratos",
+            "Planejamento", "Execução", "Auditoria", "Folha", "Pagamento", "Educação", "Saúde",
+            "Infraestrutura", "Transparência", "Convênio", "Capacitação", "Servidores", "Patrimônio"
+    };
+
+    @Param({"100000", "1000000"})
+    private int projectCount;
+
+    /**
+     * Termo comum (casa com ~1/20 dos projetos), termo raro e termo curto (sem trigrama).
+     */
+    @Param({"licitacao", "patrimonio 42", "sa"})
+    private String query;
+
+    private ProjectSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProjectSearchIndex();
+        for (long id = 1; id <= projectCount; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, id, name, null, null, 0L));
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20);
+    }
+}
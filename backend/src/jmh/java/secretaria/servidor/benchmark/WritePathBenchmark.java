@@ -0,0 +1,258 @@
+package secretaria.servidor.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import secretaria.servidor.ProjectManagementApplication;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.service.ProjectService;
+import secretaria.servidor.service.TaskService;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Edições de um projeto/tarefa (PUT e PATCH .../status) pelo caminho antigo, que lê a linha e
+ * depois grava ({@code path=readThenWrite}, reproduzido aqui com os repositórios, dentro de uma
+ * transação como na requisição com open-in-view), contra o UPDATE condicional que devolve o
+ * estado de antes ({@code path=conditionalUpdate}, os services atuais). No fim de cada
+ * benchmark imprime quantos SQLs cada operação executou.
+ * Por padrão usa H2 em memória, onde um SQL a mais quase não custa: {@code roundTripMicros}
+ * soma uma espera a cada statement, como a ida e volta da rede até um banco remoto. Para
+ * números reais use {@code -p jdbcUrl=jdbc:postgresql://... -p roundTripMicros=0}.
+ * Com um único processador, o JIT leva mais de um minuto para estabilizar (daí o aquecimento longo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 15, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx1g"})
+public class WritePathBenchmark {
+
+    private static final int PROJECTS = 200;
+
+    @Param({"readThenWrite", "conditionalUpdate"})
+    private String path;
+
+    /**
+     * Vazio usa um H2 em memória com o schema criado pelas migrations do Flyway.
+     */
+    @Param({""})
+    private String jdbcUrl;
+
+    /**
+     * Espera somada a cada SQL, simulando a latência de rede até o banco (0 = sem espera).
+     */
+    @Param({"0", "300"})
+    private long roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private ProjectService projectService;
+    private TaskService taskService;
+    private ProjectRepository projectRepository;
+    private TaskRepository taskRepository;
+    private TransactionTemplate transactionTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private Statistics statistics;
+
+    private final List<Long> projectIds = new ArrayList<>();
+    private final List<Long> taskIds = new ArrayList<>();
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> properties = new ArrayList<>(List.of(
+                "logging.level.root=WARN",
+                "spring.jpa.properties.hibernate.generate_statistics=true"));
+        if (jdbcUrl.isEmpty()) {
+            properties.add("spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.add("spring.datasource.driver-class-name=org.h2.Driver");
+            properties.add("spring.datasource.username=sa");
+            properties.add("spring.datasource.password=");
+            properties.add("spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            properties.add("spring.datasource.url=" + jdbcUrl);
+        }
+
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        projectService = context.getBean(ProjectService.class);
+        taskService = context.getBean(TaskService.class);
+        projectRepository = context.getBean(ProjectRepository.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        eventPublisher = context;
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        if (roundTripMicros > 0) {
+            // O DataSource da aplicação já é o proxy do rastreio de SQL (app.sql-trace.enabled)
+            ((ProxyDataSource) context.getBean(DataSource.class)).addListener(new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+            });
+        }
+
+        List<Project> projects = BenchmarkData.projects(PROJECTS, 10);
+        projects.forEach(project -> {
+            project.setId(null);
+            project.getTasks().forEach(task -> task.setId(null));
+        });
+        for (Project saved : projectRepository.saveAll(projects)) {
+            projectIds.add(saved.getId());
+            saved.getTasks().forEach(task -> taskIds.add(task.getId()));
+        }
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop(BenchmarkParams params) {
+        System.out.printf("%n%s (%s): %.2f SQLs por operação%n", params.getBenchmark(), path,
+                (double) statistics.getPrepareStatementCount() / Math.max(operations, 1));
+        context.close();
+    }
+
+    @Benchmark
+    public Task taskStatus() {
+        Long taskId = next(taskIds);
+        TaskStatus status = TaskStatus.values()[(int) (operations % TaskStatus.values().length)];
+        return "readThenWrite".equals(path)
+                ? transactionTemplate.execute(tx -> readThenWriteTaskStatus(taskId, status))
+                : taskService.updateStatus(taskId, status, null);
+    }
+
+    @Benchmark
+    public Task taskUpdate() {
+        Long taskId = next(taskIds);
+        Task data = new Task();
+        data.setTitle("Tarefa editada " + operations);
+        data.setStatus(TaskStatus.values()[(int) (operations % TaskStatus.values().length)]);
+        data.setDueDays(5);
+        return "readThenWrite".equals(path)
+                ? transactionTemplate.execute(tx -> readThenWriteTask(taskId, data))
+                : taskService.updateTask(taskId, data, null);
+    }
+
+    @Benchmark
+    public Project projectStatus() {
+        Long projectId = next(projectIds);
+        ProjectStatus status = ProjectStatus.values()[(int) (operations % ProjectStatus.values().length)];
+        return "readThenWrite".equals(path)
+                ? transactionTemplate.execute(tx -> readThenWriteProjectStatus(projectId, status))
+                : projectService.updateStatus(projectId, status, null);
+    }
+
+    @Benchmark
+    public Project projectUpdate() {
+        Long projectId = next(projectIds);
+        Project data = new Project();
+        data.setName("Projeto editado " + operations);
+        data.setStatus(ProjectStatus.values()[(int) (operations % ProjectStatus.values().length)]);
+        // Mesma transação da requisição (open-in-view): o save não relê o projeto, mas o UPDATE só sai no commit
+        return "readThenWrite".equals(path)
+                ? transactionTemplate.execute(tx -> readThenWriteProject(projectId, data))
+                : projectService.updateProject(projectId, data, null);
+    }
+
+    private Long next(List<Long> ids) {
+        return ids.get((int) (operations++ % ids.size()));
+    }
+
+    /**
+     * TaskService.updateStatus antes do UPDATE condicional: findById + UPDATE por versão (@Version,
+     * no flush) + versão do projeto.
+     */
+    private Task readThenWriteTaskStatus(Long taskId, TaskStatus status) {
+        Task existing = taskRepository.findById(taskId).orElseThrow();
+        TaskStatus previousStatus = existing.getStatus();
+        Long projectId = existing.getProject().getId();
+        existing.setStatus(status);
+        Task saved = taskRepository.saveAndFlush(existing);
+        projectRepository.incrementVersion(projectId);
+        eventPublisher.publishEvent(new TaskChangedEvent(ChangeType.STATUS_CHANGED, taskId, projectId,
+                previousStatus, saved.getResponsible(), status, saved.getResponsible(), saved.getVersion()));
+        return saved;
+    }
+
+    /**
+     * TaskService.updateTask antes: findByIdNative + saveAndFlush + versão do projeto.
+     */
+    private Task readThenWriteTask(Long taskId, Task data) {
+        Task existing = taskRepository.findByIdNative(taskId);
+        TaskStatus previousStatus = existing.getStatus();
+        existing.setTitle(data.getTitle());
+        existing.setDescription(data.getDescription());
+        existing.setResponsible(data.getResponsible());
+        existing.setDueDays(data.getDueDays());
+        existing.setStatus(data.getStatus());
+        Task saved = taskRepository.saveAndFlush(existing);
+        Long projectId = existing.getProject().getId();
+        projectRepository.incrementVersion(projectId);
+        eventPublisher.publishEvent(new TaskChangedEvent(ChangeType.UPDATED, taskId, projectId,
+                previousStatus, null, saved.getStatus(), saved.getResponsible(), saved.getVersion()));
+        return saved;
+    }
+
+    /**
+     * ProjectService.updateStatus antes: findById (projeto + tarefas) + UPDATE por versão (@Version, no flush).
+     */
+    private Project readThenWriteProjectStatus(Long projectId, ProjectStatus status) {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        Hibernate.initialize(project.getTasks());
+        ProjectStatus previousStatus = project.getStatus();
+        project.setStatus(status);
+        Project saved = projectRepository.saveAndFlush(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(ChangeType.STATUS_CHANGED, projectId,
+                saved.getName(), previousStatus, status, saved.getVersion()));
+        return saved;
+    }
+
+    /**
+     * ProjectService.updateProject antes: findById + save (UPDATE no flush) + tarefas para a resposta.
+     */
+    private Project readThenWriteProject(Long projectId, Project data) {
+        Project existing = projectRepository.findById(projectId).orElseThrow();
+        ProjectStatus previousStatus = existing.getStatus();
+        existing.setName(data.getName());
+        existing.setDescription(data.getDescription());
+        existing.setStartDate(data.getStartDate());
+        existing.setEndDate(data.getEndDate());
+        existing.setStatus(data.getStatus());
+        existing.setTeamResponsible(data.getTeamResponsible());
+        Project saved = projectRepository.saveAndFlush(existing);
+        Hibernate.initialize(saved.getTasks());
+        eventPublisher.publishEvent(new ProjectChangedEvent(ChangeType.UPDATED, projectId,
+                saved.getName(), previousStatus, saved.getStatus(), saved.getVersion()));
+        return saved;
+    }
+}
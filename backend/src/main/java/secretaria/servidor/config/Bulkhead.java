@@ -0,0 +1,197 @@
+package secretaria.servidor.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de requisições simultâneas de um grupo de endpoints, com fila curta e limite adaptativo.
+ *
+ * Quem chega com o limite ocupado espera até maxWait numa fila (por ordem de chegada) de no máximo
+ * maxQueue; se a fila estiver cheia ou o tempo acabar, é recusado na hora. O limite começa em
+ * maxLimit e se ajusta pela latência (AIMD): quando a média recente passa de tolerance vezes a média
+ * de longo prazo, o grupo está saturando o banco e o limite cai 10% a cada resposta lenta, até minLimit;
+ * com a latência normal e o grupo usando pelo menos metade do limite, ele volta a subir de 1 em 1.
+ * tolerance 0 desliga a adaptação (limite fixo).
+ */
+public class Bulkhead {
+
+    private static final double BACKOFF = 0.9;
+    /**
+     * Peso de cada resposta nas médias: a recente reage em ~10 respostas, a de longo prazo em ~1.000.
+     */
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.001;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final double tolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+
+    public Bulkhead(String name, int minLimit, int maxLimit, int maxQueue, Duration maxWait, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites inválidos para o grupo " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.tolerance = tolerance;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Ocupa uma vaga, esperando na fila se preciso. Retorna false (e conta como recusa)
+     * quando a fila está cheia ou o tempo de espera acabou; quem recebe true chama {@link #release}.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            // Com gente na fila, quem chega entra atrás dela
+            if (queued == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue || maxWaitNanos <= 0) {
+                rejected.increment();
+                return false;
+            }
+            queued++;
+            waited.increment();
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga e usa a latência da requisição para ajustar o limite.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int used = inFlight--;
+            adapt(latencyNanos, used);
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga sem amostra de latência (respostas em streaming, cujo tempo não diz nada sobre o banco).
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adapt(long latencyNanos, int used) {
+        if (tolerance <= 0) {
+            return;
+        }
+        if (longLatencyNanos == 0) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += (latencyNanos - shortLatencyNanos) * SHORT_WEIGHT;
+        longLatencyNanos += (latencyNanos - longLatencyNanos) * LONG_WEIGHT;
+        if (shortLatencyNanos > longLatencyNanos * tolerance) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else if (used * 2 >= limit && limit < maxLimit) {
+            limit = Math.min(maxLimit, limit + 1);
+            // Vaga nova: acorda mais um da fila além do que a liberação já acorda
+            released.signal();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Média recente da latência, em ms (0 antes da primeira resposta).
+     */
+    public double getLatencyMillis() {
+        lock.lock();
+        try {
+            return shortLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getWaited() {
+        return waited.sum();
+    }
+}
@@ -0,0 +1,53 @@
+package secretaria.servidor.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulkheads por grupo de endpoints (app.bulkhead.*, ligados por padrão). Cada grupo
+ * (bulk, read, write) tem max-concurrent, min-concurrent, max-queue e max-wait próprios;
+ * latency-tolerance e retry-after valem para todos. Padrões em {@link BulkheadProperties};
+ * ver {@link BulkheadFilter}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(BulkheadProperties properties, ObjectMapper objectMapper) {
+        Map<BulkheadFilter.Group, Bulkhead> bulkheads = new EnumMap<>(BulkheadFilter.Group.class);
+        for (BulkheadFilter.Group group : BulkheadFilter.Group.values()) {
+            String name = group.name().toLowerCase(Locale.ROOT);
+            BulkheadProperties.Limits limits = properties.of(group);
+            Bulkhead bulkhead = new Bulkhead(name, limits.getMinConcurrent(), limits.getMaxConcurrent(),
+                    limits.getMaxQueue(), limits.getMaxWait(), properties.getLatencyTolerance());
+            log.info("Bulkhead '{}': até {} requisições simultâneas, fila de {} por até {}",
+                    name, limits.getMaxConcurrent(), limits.getMaxQueue(), limits.getMaxWait());
+            bulkheads.put(group, bulkhead);
+        }
+        return new BulkheadFilter(bulkheads, properties.getRetryAfter(), objectMapper);
+    }
+
+    /**
+     * Depois da observação HTTP do Actuator (os 429 entram no http.server.requests)
+     * e antes do roteamento para a réplica.
+     */
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter filter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+}
@@ -0,0 +1,168 @@
+package secretaria.servidor.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Bulkheads por grupo de endpoints: cada grupo tem o seu {@link Bulkhead}, então uma enxurrada de
+ * listagens, buscas e exportações não toma todas as conexões do pool e não trava as leituras pontuais
+ * nem as escritas. Quem passa do limite (e da fila) recebe 429 com Retry-After na hora, sem chegar ao banco.
+ *
+ * O /api/events fica de fora (conexão longa, sem banco), assim como o que não é /api (Actuator, Swagger).
+ * Nas respostas assíncronas (exportação em streaming) a vaga só é liberada quando a resposta termina.
+ */
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    public enum Group {
+        /**
+         * Listagens, buscas, resumos, exportação e a consulta de tarefas: o que pode ler muitas linhas.
+         */
+        BULK,
+        /**
+         * Leituras de um registro: projeto por id, tarefas de um projeto, job, painel.
+         */
+        READ,
+        /**
+         * Tudo que não é GET/HEAD.
+         */
+        WRITE
+    }
+
+    private static final Pattern POINT_READS = Pattern.compile(
+            "/api/projects/\\d+(/tasks)?|/api/jobs/[^/]+|/api/stats");
+
+    private final Map<Group, Bulkhead> bulkheads;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Map<Group, Bulkhead> bulkheads, Duration retryAfter, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<Group, Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Grupo da requisição, ou null quando ela não passa por bulkhead.
+     */
+    static Group groupOf(String method, String path) {
+        if (!path.startsWith("/api/") || path.startsWith("/api/events") || "OPTIONS".equals(method)) {
+            return null;
+        }
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return Group.WRITE;
+        }
+        return POINT_READS.matcher(path).matches() ? Group.READ : Group.BULK;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Group group = groupOf(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        Bulkhead bulkhead = group != null ? bulkheads.get(group) : null;
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(bulkhead, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void reject(Bulkhead bulkhead, HttpServletResponse response) throws IOException {
+        log.debug("Requisição recusada pelo bulkhead {} (limite {}, fila {})",
+                bulkhead.getName(), bulkhead.getLimit(), bulkhead.getQueued());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Servidor ocupado com requisições do grupo " + bulkhead.getName()
+                + ". Tente novamente em instantes.");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Libera a vaga uma única vez, quando a resposta assíncrona termina (bem, com erro ou por timeout).
+     */
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package secretaria.servidor.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limites dos bulkheads (app.bulkhead.*). Os padrões ficam só aqui; o application.properties
+ * sobrescreve o que a instalação precisar. Foram medidos com o LoadTest (40 req/s, 1.000 projetos)
+ * numa máquina de 1 CPU: sem fila, uma listagem leva de 10 a 250 ms, mas com o grupo bulk cheio o
+ * p99 dessas rotas chega a 2 s. Com max-wait de 100 ms, 36 de 764 requisições receberam 429; com
+ * 1 s, 17 de 783; com 2 s, 1 de 799. Em outra máquina ou com outra carga, ajuste por instalação
+ * olhando as métricas app.bulkhead.waited e app.bulkhead.rejected.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("app.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * O limite cai quando a latência recente do grupo passa deste múltiplo da média longa (0 = limite fixo).
+     */
+    private double latencyTolerance = 2.0;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Um por {@link BulkheadFilter.Group}.
+     */
+    private Limits bulk = new Limits(4, 20, Duration.ofSeconds(2));
+
+    private Limits read = new Limits(16, 50, Duration.ofMillis(200));
+
+    private Limits write = new Limits(8, 20, Duration.ofMillis(500));
+
+    public Limits of(BulkheadFilter.Group group) {
+        return switch (group) {
+            case BULK -> bulk;
+            case READ -> read;
+            case WRITE -> write;
+        };
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        private int minConcurrent = 1;
+        private int maxConcurrent;
+        private int maxQueue;
+        private Duration maxWait;
+
+        public Limits() {
+        }
+
+        Limits(int maxConcurrent, int maxQueue, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package secretaria.servidor.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import secretaria.servidor.service.ProjectSnapshot;
+
+import java.time.Duration;
+
+/**
+ * Cache local (Caffeine) de leitura para projetos, como {@link ProjectSnapshot} imutável com as tarefas.
+ * O limite é por peso, não por entradas: cada projeto pesa 1 mais o número de tarefas, e o total fica
+ * em app.cache.projects.max-weight (um projeto com milhares de tarefas ocupa o lugar de milhares de
+ * pequenos). TTL em app.cache.projects.ttl. A invalidação é feita pelo ProjectCacheEvictor a partir
+ * dos eventos de escrita.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROJECTS = "projects";
+
+    @Bean
+    public Caffeine<Object, Object> caffeine(Environment environment) {
+        return Caffeine.newBuilder()
+                .maximumWeight(environment.getProperty("app.cache.projects.max-weight", Long.class, 100_000L))
+                .<Object, Object>weigher((key, value) -> value instanceof ProjectSnapshot project ? 1 + project.tasks().size() : 1)
+                .expireAfterWrite(environment.getProperty("app.cache.projects.ttl", Duration.class,
+                        Duration.ofMinutes(10)))
+                .recordStats();
+    }
+}
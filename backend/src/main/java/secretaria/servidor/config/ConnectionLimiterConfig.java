@@ -0,0 +1,74 @@
+package secretaria.servidor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Liga o {@link ConnectionLimitingDataSource} na frente do Hikari quando
+ * app.datasource.acquire-limit.enabled=true (ativado pelo profile virtual-threads).
+ * O limite (max-connections) é obrigatório e menor que o maximum-pool-size; a espera (timeout, padrão
+ * 500 ms) é menor que o connection-timeout. Com os valores do pool o limitador não protegeria nada:
+ * o Hikari já barra no mesmo ponto, só que depois de esperar mais.
+ * Roda antes dos outros pós-processadores de DataSource (o rastreio de SQL embrulha o limitador).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.acquire-limit.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        return new ConnectionLimitingPostProcessor(environment);
+    }
+
+    /**
+     * Limitador para o pool, com max-connections e timeout lidos de prefix. Falha na subida se eles
+     * não forem menores que o maximum-pool-size e o connection-timeout do pool.
+     */
+    static ConnectionLimitingDataSource limit(HikariDataSource pool, Environment environment, String prefix) {
+        int maxConnections = environment.getRequiredProperty(prefix + ".max-connections", Integer.class);
+        Duration timeout = environment.getProperty(prefix + ".timeout", Duration.class, Duration.ofMillis(500));
+        if (maxConnections < 1 || maxConnections >= pool.getMaximumPoolSize()) {
+            throw new IllegalStateException(prefix + ".max-connections (" + maxConnections
+                    + ") deve ficar entre 1 e o maximum-pool-size (" + pool.getMaximumPoolSize() + ") menos 1");
+        }
+        if (timeout.toMillis() >= pool.getConnectionTimeout()) {
+            throw new IllegalStateException(prefix + ".timeout (" + timeout.toMillis()
+                    + " ms) deve ser menor que o connection-timeout (" + pool.getConnectionTimeout() + " ms)");
+        }
+        return new ConnectionLimitingDataSource(pool, maxConnections, timeout);
+    }
+
+    private static final class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private ConnectionLimitingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            ConnectionLimitingDataSource limited = limit(hikari, environment, "app.datasource.acquire-limit");
+            log.info("Limitando o datasource '{}' a {} de {} conexões simultâneas",
+                    beanName, limited.getMaxConnections(), hikari.getMaximumPoolSize());
+            return limited;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
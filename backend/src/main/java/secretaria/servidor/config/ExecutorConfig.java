@@ -0,0 +1,54 @@
+package secretaria.servidor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executores próprios e limitados para cada tipo de trabalho fora da thread da requisição,
+ * para que um não tome as threads do outro: jobs (importação, exclusão em segundo plano),
+ * streaming (respostas assíncronas da exportação) e feed (envio do /api/events).
+ * Cada um tem app.executors.{nome}.pool-size threads e uma fila de queue-capacity; com tudo
+ * ocupado a tarefa é recusada (TaskRejectedException) e quem agendou decide o que fazer:
+ * 503 para jobs e exportação, desconexão do assinante no feed.
+ * As métricas saem em executor.* (tag name com o nome do bean).
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    public static final String JOBS = "jobExecutor";
+    public static final String STREAMING = "streamingExecutor";
+    public static final String FEED = "feedExecutor";
+
+    @Bean(JOBS)
+    public ThreadPoolTaskExecutor jobExecutor(Environment environment) {
+        return executor(environment, "jobs", 2, 20);
+    }
+
+    @Bean(STREAMING)
+    public ThreadPoolTaskExecutor streamingExecutor(Environment environment) {
+        return executor(environment, "streaming", 4, 10);
+    }
+
+    @Bean(FEED)
+    public ThreadPoolTaskExecutor feedExecutor(Environment environment) {
+        return executor(environment, "feed", 2, 1_000);
+    }
+
+    private static ThreadPoolTaskExecutor executor(Environment environment, String name,
+                                                   int defaultPoolSize, int defaultQueueCapacity) {
+        String prefix = "app.executors." + name + ".";
+        int poolSize = environment.getProperty(prefix + "pool-size", Integer.class, defaultPoolSize);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        log.info("Executor '{}': {} threads, fila de {}", name, poolSize, queueCapacity);
+        return executor;
+    }
+}
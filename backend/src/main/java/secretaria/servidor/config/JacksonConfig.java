@@ -0,0 +1,21 @@
+package secretaria.servidor.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ajustes do ObjectMapper do Spring Boot (o mesmo dos conversores HTTP, da exportação e do /api/events).
+ *
+ * O Blackbird troca a reflexão nos getters/setters e construtores dos DTOs por acessores gerados
+ * com LambdaMetafactory, que o JIT consegue inlinar. Ver ProjectMappingBenchmark (accessors).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
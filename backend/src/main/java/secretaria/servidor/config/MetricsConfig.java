@@ -0,0 +1,119 @@
+package secretaria.servidor.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import secretaria.servidor.metrics.SqlStatementCounter;
+import secretaria.servidor.metrics.SqlStatementsPerRequestFilter;
+import secretaria.servidor.service.feed.ChangeFeed;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Métricas próprias da aplicação, além das que o Actuator já registra
+ * (http.server.requests, spring.data.repository.invocations, hikaricp.*, hibernate.*):
+ * SQLs por requisição, conexões abertas no /api/events, limite, fila e recusas de cada bulkhead
+ * e, com o profile virtual-threads, a fila do limitador de conexões.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementsPerRequestFilter> sqlStatementsPerRequestFilter(
+            SqlStatementCounter counter, MeterRegistry registry) {
+        FilterRegistrationBean<SqlStatementsPerRequestFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementsPerRequestFilter(counter, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder changeFeedMetrics(ChangeFeed changeFeed) {
+        return registry -> Gauge.builder("app.events.subscribers", changeFeed, ChangeFeed::getSubscriberCount)
+                .description("Conexões abertas no GET /api/events")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            ConnectionLimitingDataSource limiter = unwrap(dataSource.getIfAvailable(), ConnectionLimitingDataSource.class);
+            if (limiter == null) {
+                return;
+            }
+            Gauge.builder("app.datasource.acquire-limit.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Conexões que ainda podem ser emprestadas sem esperar")
+                    .register(registry);
+            Gauge.builder("app.datasource.acquire-limit.queued", limiter, ConnectionLimitingDataSource::getQueueLength)
+                    .description("Threads esperando uma conexão no limitador")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(ObjectProvider<BulkheadFilter> bulkheadFilter) {
+        return registry -> {
+            BulkheadFilter filter = bulkheadFilter.getIfAvailable();
+            if (filter == null) {
+                return;
+            }
+            for (Bulkhead bulkhead : filter.getBulkheads().values()) {
+                Gauge.builder("app.bulkhead.limit", bulkhead, Bulkhead::getLimit)
+                        .description("Requisições simultâneas permitidas agora (ajustado pela latência)")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+                Gauge.builder("app.bulkhead.active", bulkhead, Bulkhead::getInFlight)
+                        .description("Requisições do grupo em andamento")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+                Gauge.builder("app.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                        .description("Requisições esperando vaga no grupo")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+                Gauge.builder("app.bulkhead.latency", bulkhead, Bulkhead::getLatencyMillis)
+                        .description("Média recente da latência do grupo, usada no ajuste do limite")
+                        .baseUnit("milliseconds")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+                FunctionCounter.builder("app.bulkhead.waited", bulkhead, Bulkhead::getWaited)
+                        .description("Requisições que chegaram com o limite ocupado e entraram na fila")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+                FunctionCounter.builder("app.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                        .description("Requisições recusadas com 429 (fila cheia ou espera esgotada)")
+                        .tag("group", bulkhead.getName())
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * O DataSource pode estar embrulhado (rastreio de SQL), então procura o limitador por dentro.
+     */
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource != null && dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package secretaria.servidor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura, ligada com app.datasource.replica.enabled=true e configurada em
+ * app.datasource.replica.* (url, username, password e hikari.*, como o spring.datasource).
+ *
+ * O DataSource da aplicação passa a ser um {@link ReadWriteRoutingDataSource} entre o primário
+ * e a réplica, atrás de um LazyConnectionDataSourceProxy. Roda depois do limitador de conexões
+ * (que fica no primário) e antes do rastreio de SQL (que vê os statements dos dois).
+ * O schema da réplica vem da replicação: o Flyway só roda no primário.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    static BeanPostProcessor readReplicaRoutingPostProcessor(Environment environment) {
+        return new ReadReplicaRoutingPostProcessor(environment);
+    }
+
+    /**
+     * O cookie primary-until é assinado com app.datasource.replica.cookie-secret. Sem ele, cada
+     * instância sorteia a sua chave na subida: com várias instâncias atrás de um balanceador,
+     * configure o mesmo segredo em todas, senão o cookie de uma não vale na outra.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replica.sticky-window:5s}") Duration stickyWindow,
+            @Value("${app.datasource.replica.cookie-secret:}") String cookieSecret) {
+        byte[] secret;
+        if (cookieSecret.isEmpty()) {
+            log.warn("app.datasource.replica.cookie-secret não configurado: usando uma chave desta instância");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = cookieSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyWindow, secret));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    private static final class ReadReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final Environment environment;
+        private HikariDataSource replica;
+
+        private ReadReplicaRoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || !"dataSource".equals(beanName)) {
+                return bean;
+            }
+            replica = createReplica();
+            log.info("Transações read-only do datasource '{}' vão para a réplica {}", beanName, replica.getJdbcUrl());
+            return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, limit(replica)));
+        }
+
+        private HikariDataSource createReplica() {
+            Binder binder = Binder.get(environment);
+            DataSourceProperties properties = binder.bind("app.datasource.replica", DataSourceProperties.class)
+                    .orElseThrow(() -> new IllegalStateException("app.datasource.replica.url não configurada"));
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+            if (dataSource.getPoolName() == null) {
+                dataSource.setPoolName("replica");
+            }
+            return dataSource;
+        }
+
+        /**
+         * Com o limitador de conexões ligado (threads virtuais), a réplica ganha o seu, com os limites
+         * em app.datasource.replica.acquire-limit.* (menores que os do pool dela).
+         */
+        private DataSource limit(HikariDataSource dataSource) {
+            if (!environment.getProperty("app.datasource.acquire-limit.enabled", Boolean.class, false)) {
+                return dataSource;
+            }
+            return ConnectionLimiterConfig.limit(dataSource, environment, "app.datasource.replica.acquire-limit");
+        }
+
+        @Override
+        public void destroy() {
+            if (replica != null) {
+                replica.close();
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package secretaria.servidor.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Manda as transações read-only para a réplica e todo o resto (escritas, código fora de
+ * transação, Flyway) para o primário.
+ *
+ * A escolha acontece quando a conexão é de fato aberta, então precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy: sem ele a conexão sai no início da transação, antes do
+ * Spring marcá-la como read-only. Dentro de {@link #usePrimary} (ou de uma requisição
+ * marcada pelo {@link ReadYourWritesFilter}) as leituras também vão para o primário.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> false);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Executa o trabalho lendo do primário mesmo em transação read-only.
+     * Só vale para conexões abertas dentro dele; uma transação já em andamento mantém a sua.
+     */
+    public static <T> T usePrimary(Supplier<T> work) {
+        boolean previous = requirePrimary(true);
+        try {
+            return work.get();
+        } finally {
+            requirePrimary(previous);
+        }
+    }
+
+    /**
+     * Liga/desliga a leitura no primário para a thread atual e devolve o valor anterior.
+     */
+    static boolean requirePrimary(boolean required) {
+        boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(required);
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PRIMARY_REQUIRED.get()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,113 @@
+package secretaria.servidor.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Read-your-writes com réplica de leitura: o cliente que acabou de escrever lê do primário
+ * por uma janela curta, para não ver a réplica ainda sem a própria escrita.
+ *
+ * Toda requisição de escrita (fora GET/HEAD/OPTIONS) roda inteira no primário e devolve o
+ * cookie {@value #COOKIE} com o instante (epoch em ms) até quando o cliente fica no primário,
+ * assinado com HMAC-SHA256: o cliente não consegue inventar nem esticar a janela para tirar
+ * as próprias leituras da réplica. Mesmo assinado, um instante além de agora + sticky-window
+ * não vale. O cookie sai antes de o corpo ser escrito, então uma escrita que falha também
+ * renova a janela.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final Duration stickyWindow;
+    private final SecretKeySpec key;
+
+    public ReadYourWritesFilter(Duration stickyWindow, byte[] secret) {
+        this.stickyWindow = stickyWindow;
+        this.key = new SecretKeySpec(secret, HMAC);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            String until = Long.toString(System.currentTimeMillis() + stickyWindow.toMillis());
+            Cookie cookie = new Cookie(COOKIE, until + "." + sign(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!write && !isSticky(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReadWriteRoutingDataSource.requirePrimary(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.requirePrimary(previous);
+        }
+    }
+
+    private boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                return isValid(cookie.getValue());
+            }
+        }
+        return false;
+    }
+
+    private boolean isValid(String value) {
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        String until = value.substring(0, dot);
+        byte[] signature = value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(signature, sign(until).getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        try {
+            long untilMillis = Long.parseLong(until);
+            long now = System.currentTimeMillis();
+            return untilMillis > now && untilMillis <= now + stickyWindow.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package secretaria.servidor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import secretaria.servidor.metrics.RepositoryMethodTracker;
+import secretaria.servidor.metrics.SlowQueryLog;
+import secretaria.servidor.metrics.SqlTraceListener;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Rastreio de SQL (app.sql-trace.*, ligado por padrão): embrulha o DataSource com o
+ * datasource-proxy e marca nos repositórios qual método está rodando, para cada statement
+ * lento ou amostrado sair no log com a origem. Os mais lentos ficam em GET /api/admin/slow-queries.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(Environment environment) {
+        return new SlowQueryLog(
+                environment.getProperty("app.sql-trace.top-size", Integer.class, 20),
+                environment.getProperty("app.sql-trace.top-window", Duration.class, Duration.ofHours(1)),
+                environment.getProperty("app.sql-trace.top-threshold", Duration.class, Duration.ofMillis(10)),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    public SqlTraceListener sqlTraceListener(Environment environment, SlowQueryLog slowQueryLog) {
+        return new SqlTraceListener(
+                environment.getProperty("app.sql-trace.slow-threshold", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty("app.sql-trace.sample-rate", Double.class, 0.0),
+                environment.getProperty("app.sql-trace.max-parameter-length", Integer.class, 50),
+                slowQueryLog);
+    }
+
+    @Bean
+    static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTraceListener> listener) {
+        return new SqlTracingDataSourcePostProcessor(listener);
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodTracker(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Roda depois dos demais pós-processadores de DataSource, então embrulha o limitador de conexões
+     * (quando ligado) e o tempo medido é só o do statement, sem a espera por conexão.
+     */
+    private static final class SqlTracingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SqlTraceListener> listener;
+
+        private SqlTracingDataSourcePostProcessor(ObjectProvider<SqlTraceListener> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                return bean;
+            }
+            log.info("Rastreio de SQL ligado no datasource '{}'", beanName);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener.getObject())
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
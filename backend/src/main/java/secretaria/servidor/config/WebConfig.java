@@ -0,0 +1,33 @@
+package secretaria.servidor.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Respostas assíncronas (StreamingResponseBody da exportação): rodam no executor de streaming
+ * (ver {@link ExecutorConfig}; sem vaga, 503) e com timeout longo, já que uma exportação
+ * completa passa facilmente dos 30 s padrão do Tomcat.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    @Qualifier(ExecutorConfig.STREAMING)
+    private AsyncTaskExecutor streamingExecutor;
+
+    @Value("${spring.mvc.async.request-timeout:1h}")
+    private Duration asyncRequestTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+}
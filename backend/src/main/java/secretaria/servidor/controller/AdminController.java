@@ -0,0 +1,75 @@
+package secretaria.servidor.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import secretaria.servidor.metrics.SlowQueryLog;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Ausente com app.sql-trace.enabled=false
+    @Autowired(required = false)
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * Estatísticas dos caches locais (tamanho, acertos, falhas, taxa de acerto e remoções).
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Map<String, Object>>> cacheStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("size", nativeCache.estimatedSize());
+            values.put("hits", stats.hitCount());
+            values.put("misses", stats.missCount());
+            values.put("hitRate", stats.hitRate());
+            values.put("evictions", stats.evictionCount());
+            result.put(name, values);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * As consultas mais lentas da última janela (app.sql-trace.top-*), uma por SQL, da mais lenta
+     * para a mais rápida, com o método de repositório que as disparou.
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryLog.SlowQuery>> slowQueries() {
+        return ResponseEntity.ok(slowQueryLog != null ? slowQueryLog.snapshot() : List.of());
+    }
+
+    /**
+     * Zera o ranking de consultas lentas (por exemplo, antes de medir uma mudança).
+     */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        if (slowQueryLog != null) {
+            slowQueryLog.clear();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,118 @@
+package secretaria.servidor.controller;
+
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.exception.VersionConflictException;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import secretaria.servidor.repository.projection.ProjectVersion;
+import secretaria.servidor.service.ProjectSnapshot;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ETags a partir do @Version das entidades, sem serializar a resposta.
+ * Um registro usa a própria versão (ETag forte, que é o que o If-Match das escritas compara);
+ * uma lista usa um hash dos pares (id, versão), como ETag fraco: ela só serve para o
+ * If-None-Match, e o Tomcat não comprime respostas com ETag forte.
+ * Como a versão do projeto sobe também quando uma tarefa dele muda, o ETag do
+ * projeto cobre as tarefas que vêm junto na resposta (e as contagens dos resumos).
+ * Projetos, resumos e pares (id, versão) na mesma ordem dão o mesmo ETag: as listagens
+ * comparam o If-None-Match com uma consulta só de id e versão antes da consulta completa.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Project project) {
+        return quote(String.valueOf(project.getVersion()));
+    }
+
+    static String of(Task task) {
+        return quote(String.valueOf(task.getVersion()));
+    }
+
+    static String ofProjects(List<Project> projects) {
+        return ofList(projects, Project::getId, Project::getVersion);
+    }
+
+    static String ofSummaries(List<ProjectSummary> summaries) {
+        return ofList(summaries, ProjectSummary::getId, ProjectSummary::getVersion);
+    }
+
+    static String ofVersions(List<ProjectVersion> versions) {
+        return ofList(versions, ProjectVersion::getId, ProjectVersion::getVersion);
+    }
+
+    static String ofTasks(List<Task> tasks) {
+        return ofList(tasks, Task::getId, Task::getVersion);
+    }
+
+    static String of(ProjectSnapshot project) {
+        return quote(String.valueOf(project.version()));
+    }
+
+    static String ofTaskSnapshots(List<ProjectSnapshot.TaskSnapshot> tasks) {
+        return ofList(tasks, ProjectSnapshot.TaskSnapshot::id, ProjectSnapshot.TaskSnapshot::version);
+    }
+
+    /**
+     * Versão esperada pelo cliente a partir do cabeçalho If-Match
+     * (null quando ausente ou "*"). ETags fracos ou que não são uma versão falham a pré-condição.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new VersionConflictException("If-Match inválido: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException("If-Match inválido: " + ifMatch);
+        }
+    }
+
+    /**
+     * Se algum ETag do If-None-Match confere com o informado, em comparação fraca (sem o "W/");
+     * "*" confere com qualquer um.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        String opaque = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || opaque(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static <T> String ofList(List<T> items, Function<T, Long> idOf, Function<T, Long> versionOf) {
+        ByteBuffer buffer = ByteBuffer.allocate(items.size() * 2 * Long.BYTES);
+        for (T item : items) {
+            buffer.putLong(idOf.apply(item)).putLong(versionOf.apply(item));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            return "W/" + quote(HexFormat.of().formatHex(digest, 0, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
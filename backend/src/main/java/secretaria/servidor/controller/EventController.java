@@ -0,0 +1,26 @@
+package secretaria.servidor.controller;
+
+import secretaria.servidor.service.feed.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    /**
+     * Alterações em projetos e tarefas (Server-Sent Events), publicadas depois do commit.
+     * Cada mensagem traz entidade, tipo, id, versão e status; "resync" pede para recarregar tudo.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return changeFeed.subscribe();
+    }
+}
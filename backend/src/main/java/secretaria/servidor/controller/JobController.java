@@ -0,0 +1,31 @@
+package secretaria.servidor.controller;
+
+import secretaria.servidor.dto.JobDTO;
+import secretaria.servidor.exception.NotFoundException;
+import secretaria.servidor.service.job.JobRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    /**
+     * Situação e progresso de um job em segundo plano (importação etc.).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobDTO> getJob(@PathVariable String id) {
+        return jobRegistry.find(id)
+                .map(job -> ResponseEntity.ok(JobDTO.fromJob(job)))
+                .orElseThrow(() -> new NotFoundException("Job não encontrado: " + id));
+    }
+}
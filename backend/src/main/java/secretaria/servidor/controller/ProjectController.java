@@ -1,34 +1,166 @@
 package secretaria.servidor.controller;
 
+import secretaria.servidor.dto.CursorPage;
+import secretaria.servidor.dto.JobDTO;
 import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.dto.ProjectFilter;
+import secretaria.servidor.dto.ProjectStatusBatchDTO;
+import secretaria.servidor.dto.ProjectSummaryDTO;
 import secretaria.servidor.dto.mapper.ProjectMapper;
 import secretaria.servidor.entity.Project;
 import secretaria.servidor.entity.enums.ProjectStatus;
 import secretaria.servidor.exception.BusinessException;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import secretaria.servidor.repository.projection.ProjectVersion;
+import secretaria.servidor.service.ProjectDeletionService;
+import secretaria.servidor.service.ProjectExportService;
 import secretaria.servidor.service.ProjectService;
+import secretaria.servidor.service.ProjectSnapshot;
+import secretaria.servidor.service.importer.ImportFormat;
+import secretaria.servidor.service.importer.ProjectImportService;
+import secretaria.servidor.service.job.Job;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ProjectExportService projectExportService;
+
+    @Autowired
+    private ProjectImportService projectImportService;
+
+    @Autowired
+    private ProjectDeletionService projectDeletionService;
+
     /**
-     * Listar todos os projetos.
+     * Listar projetos paginados. O cursor da próxima página vem no header X-Next-Cursor
+     * (ausente na última página). Todos os GETs de listas de projetos trazem ETag e
+     * respondem 304 ao If-None-Match que ainda confere, sem ler as tarefas (ver {@link #notModified}).
      */
     @GetMapping
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
-        List<Project> projects = projectService.listAll();
-        return ResponseEntity.ok(ProjectMapper.toListDTO(projects));
+    public ResponseEntity<List<ProjectDTO>> getAllProjects(
+            ProjectFilter filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectDTO>>> notModified =
+                notModified(ifNoneMatch, () -> projectService.listVersionPage(filter, cursor, size));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        CursorPage<Project> page = projectService.listPage(filter, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.ofProjects(page.getItems()));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ProjectMapper.toListDTO(page.getItems()));
+    }
+
+    /**
+     * Listar resumos de projetos (id, nome, status, datas e contagem de tarefas),
+     * com a mesma paginação e filtros da listagem completa.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<ProjectSummaryDTO>> getProjectSummaries(
+            ProjectFilter filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectSummaryDTO>>> notModified =
+                notModified(ifNoneMatch, () -> projectService.listVersionPage(filter, cursor, size));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        CursorPage<ProjectSummary> page = projectService.listSummaryPage(filter, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.ofSummaries(page.getItems()));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems().stream().map(ProjectSummaryDTO::fromProjection).toList());
+    }
+
+    /**
+     * Buscar resumos de projetos por nome.
+     */
+    @GetMapping("/summary/search")
+    public ResponseEntity<List<ProjectSummaryDTO>> searchSummariesByName(
+            @RequestParam("name") String name,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectSummaryDTO>>> notModified = notModified(ifNoneMatch,
+                () -> new CursorPage<>(projectService.findVersionsByName(name, limit), null));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        List<ProjectSummary> summaries = projectService.findSummariesByName(name, limit);
+        return ResponseEntity.ok().eTag(ETags.ofSummaries(summaries))
+                .body(summaries.stream().map(ProjectSummaryDTO::fromProjection).toList());
+    }
+
+    /**
+     * Buscar resumos de projetos por status.
+     */
+    @GetMapping("/summary/status/{status}")
+    public ResponseEntity<List<ProjectSummaryDTO>> searchSummariesByStatus(
+            @PathVariable("status") ProjectStatus status,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectSummaryDTO>>> notModified = notModified(ifNoneMatch,
+                () -> new CursorPage<>(projectService.findVersionsByStatus(status), null));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        List<ProjectSummary> summaries = projectService.findSummariesByStatus(status);
+        return ResponseEntity.ok().eTag(ETags.ofSummaries(summaries))
+                .body(summaries.stream().map(ProjectSummaryDTO::fromProjection).toList());
+    }
+
+    /**
+     * Exportar todos os projetos com as tarefas em NDJSON (um projeto por linha).
+     * A resposta é escrita em streaming: começa a sair logo e não acumula a lista em memória.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProjects() {
+        StreamingResponseBody body = out -> projectExportService.exportNdjson(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"projects.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Importar projetos e tarefas de um CSV (text/csv) ou NDJSON (application/x-ndjson) enviado no corpo.
+     * O processamento é em segundo plano: a resposta 202 traz o job, acompanhado em /api/jobs/{id}.
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<JobDTO> importProjects(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                 InputStream body) throws IOException {
+        Job job = projectImportService.start(body, ImportFormat.of(contentType));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(JobDTO.fromJob(job));
     }
 
     /**
@@ -36,8 +168,8 @@ public class ProjectController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id) {
-        Project project = projectService.findById(id);
-        return ResponseEntity.ok(ProjectMapper.toDTO(project));
+        ProjectSnapshot project = projectService.findById(id);
+        return ResponseEntity.ok().eTag(ETags.of(project)).body(project.toDTO());
     }
 
     /**
@@ -47,24 +179,26 @@ public class ProjectController {
     public ResponseEntity<ProjectDTO> createProject(@RequestBody @Valid ProjectDTO projectDTO) {
         Project project = ProjectMapper.toEntity(projectDTO);
         Project saved = projectService.create(project);
-        return ResponseEntity.ok(ProjectMapper.toDTO(saved));
+        return ResponseEntity.ok().eTag(ETags.of(saved)).body(ProjectMapper.toDTO(saved));
     }
 
     /**
-     * Atualizar projeto.
+     * Atualizar projeto. Com If-Match, responde 412 se o projeto mudou desde aquele ETag.
      */
     @PutMapping("/{projectId}")
     public ResponseEntity<ProjectDTO> updateProject(
             @PathVariable Long projectId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProjectDTO projectDTO) {
 
-        Project updatedProject = projectService.updateProject(projectId, ProjectMapper.toEntity(projectDTO));
-        return ResponseEntity.ok(ProjectMapper.toDTO(updatedProject));
+        Project updatedProject = projectService.updateProject(projectId, ProjectMapper.toEntity(projectDTO),
+                ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedProject)).body(ProjectMapper.toDTO(updatedProject));
     }
 
 
     /**
-     * Excluir projeto.
+     * Excluir projeto (com as tarefas).
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
@@ -73,37 +207,97 @@ public class ProjectController {
     }
 
     /**
-     * Atualizar status do projeto (via query nativa).
+     * Excluir projeto em segundo plano, com as tarefas em lotes (para projetos muito grandes).
+     * A resposta 202 traz o job, acompanhado em /api/jobs/{id}.
+     */
+    @DeleteMapping(value = "/{id}", params = "async=true")
+    public ResponseEntity<JobDTO> deleteProjectAsync(@PathVariable Long id) {
+        Job job = projectDeletionService.start(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(JobDTO.fromJob(job));
+    }
+
+    /**
+     * Atualizar status do projeto (via query nativa). Aceita If-Match como o PUT.
      */
     @PatchMapping("/{id}/status")
     public ResponseEntity<ProjectDTO> updateProjectStatus(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestParam("status") String status
     ) {
         try {
             ProjectStatus projectStatus = ProjectStatus.valueOf(status);
-            Project updated = projectService.updateStatus(id, projectStatus);
-            return ResponseEntity.ok(ProjectMapper.toDTO(updated));
+            Project updated = projectService.updateStatus(id, projectStatus, ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updated)).body(ProjectMapper.toDTO(updated));
         } catch (IllegalArgumentException e) {
             throw new BusinessException("Status inválido: " + status);
         }
     }
 
     /**
-     * Buscar projetos por nome (exemplo).
+     * Atualizar o status de vários projetos de uma vez. Retorna os projetos alterados.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<List<ProjectDTO>> updateProjectStatuses(@Valid @RequestBody ProjectStatusBatchDTO batchDTO) {
+        List<Project> updated = projectService.updateStatuses(batchDTO.getProjectIds(), batchDTO.getStatus());
+        return ResponseEntity.ok(ProjectMapper.toListDTO(updated));
+    }
+
+    /**
+     * Buscar projetos por nome, ignorando acentos e caixa, do mais ao menos relevante.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ProjectDTO>> searchByName(@RequestParam("name") String name) {
-        List<Project> projects = projectService.findByName(name);
-        return ResponseEntity.ok(ProjectMapper.toListDTO(projects));
+    public ResponseEntity<List<ProjectDTO>> searchByName(
+            @RequestParam("name") String name,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectDTO>>> notModified = notModified(ifNoneMatch,
+                () -> new CursorPage<>(projectService.findVersionsByName(name, limit), null));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        List<Project> projects = projectService.findByName(name, limit);
+        return ResponseEntity.ok().eTag(ETags.ofProjects(projects)).body(ProjectMapper.toListDTO(projects));
     }
 
     /**
      * Buscar projetos por status (exemplo).
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<ProjectDTO>> searchByStatus(@PathVariable("status") ProjectStatus status) {
+    public ResponseEntity<List<ProjectDTO>> searchByStatus(
+            @PathVariable("status") ProjectStatus status,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ResponseEntity<List<ProjectDTO>>> notModified = notModified(ifNoneMatch,
+                () -> new CursorPage<>(projectService.findVersionsByStatus(status), null));
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
         List<Project> projects = projectService.findByStatus(status);
-        return ResponseEntity.ok(ProjectMapper.toListDTO(projects));
+        return ResponseEntity.ok().eTag(ETags.ofProjects(projects)).body(ProjectMapper.toListDTO(projects));
+    }
+
+    /**
+     * 304 quando o If-None-Match confere com o ETag dos pares (id, versão) da lista, lidos só da
+     * tabela de projetos, antes da consulta completa (com as tarefas ou as contagens). Sem
+     * If-None-Match, não consulta nada. Se um projeto mudar entre as duas consultas, a resposta
+     * sai com o ETag do que foi lido na segunda.
+     */
+    private static <T> Optional<ResponseEntity<T>> notModified(String ifNoneMatch,
+                                                               Supplier<CursorPage<ProjectVersion>> versions) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        CursorPage<ProjectVersion> page = versions.get();
+        String eTag = ETags.ofVersions(page.getItems());
+        if (!ETags.matches(ifNoneMatch, eTag)) {
+            return Optional.empty();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return Optional.of(response.build());
     }
 }
@@ -0,0 +1,27 @@
+package secretaria.servidor.controller;
+
+import secretaria.servidor.dto.StatsDTO;
+import secretaria.servidor.service.stats.StatsCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    /**
+     * Projetos por status e tarefas por status × responsável, vindos dos contadores em memória.
+     */
+    @GetMapping
+    public ResponseEntity<StatsDTO> getStats() {
+        return ResponseEntity.ok(statsCounters.snapshot());
+    }
+}
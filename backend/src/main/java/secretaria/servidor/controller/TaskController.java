@@ -1,14 +1,18 @@
 package secretaria.servidor.controller;
 
+import secretaria.servidor.dto.TaskBatchDTO;
 import secretaria.servidor.dto.TaskDTO;
+import secretaria.servidor.dto.TaskStatusBatchDTO;
 import secretaria.servidor.dto.mapper.TaskMapper;
 import secretaria.servidor.entity.Task;
 import secretaria.servidor.entity.enums.TaskStatus;
 import secretaria.servidor.exception.BusinessException;
+import secretaria.servidor.service.ProjectSnapshot;
 import secretaria.servidor.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -22,12 +26,14 @@ public class TaskController {
     private TaskService taskService;
 
     /**
-     * Listar tarefas de um projeto.
+     * Listar tarefas de um projeto (com ETag; 304 ao If-None-Match que ainda confere).
      */
     @GetMapping
     public ResponseEntity<List<TaskDTO>> listTasks(@PathVariable Long projectId) {
-        List<Task> tasks = taskService.listTasksByProject(projectId);
-        return ResponseEntity.ok(TaskMapper.toListDTO(tasks));
+        List<ProjectSnapshot.TaskSnapshot> tasks = taskService.listTasksByProject(projectId);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofTaskSnapshots(tasks))
+                .body(tasks.stream().map(ProjectSnapshot.TaskSnapshot::toDTO).toList());
     }
 
     /**
@@ -38,19 +44,31 @@ public class TaskController {
                                               @Valid @RequestBody TaskDTO taskDTO) {
         Task task = TaskMapper.toEntity(taskDTO);
         Task saved = taskService.createTask(projectId, task);
-        return ResponseEntity.ok(TaskMapper.toDTO(saved));
+        return ResponseEntity.ok().eTag(ETags.of(saved)).body(TaskMapper.toDTO(saved));
     }
 
     /**
-     * Atualizar tarefa.
+     * Criar várias tarefas em um projeto numa única requisição (até 10.000).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskDTO>> createTasks(@PathVariable Long projectId,
+                                                     @Valid @RequestBody TaskBatchDTO batchDTO) {
+        List<Task> tasks = batchDTO.getTasks().stream().map(TaskMapper::toEntity).toList();
+        List<Task> saved = taskService.createTasks(projectId, tasks);
+        return ResponseEntity.ok(TaskMapper.toListDTO(saved));
+    }
+
+    /**
+     * Atualizar tarefa. Com If-Match, responde 412 se a tarefa mudou desde aquele ETag.
      */
     @PutMapping("/{taskId}")
     public ResponseEntity<TaskDTO> updateTask(@PathVariable Long projectId,
                                               @PathVariable Long taskId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                               @Valid @RequestBody TaskDTO taskDTO) {
         Task task = TaskMapper.toEntity(taskDTO);
-        Task updated = taskService.updateTask(taskId, task);
-        return ResponseEntity.ok(TaskMapper.toDTO(updated));
+        Task updated = taskService.updateTask(taskId, task, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(TaskMapper.toDTO(updated));
     }
 
 
@@ -65,16 +83,29 @@ public class TaskController {
     }
 
     /**
-     * Atualizar status da tarefa (via query nativa).
+     * Atualizar o status de várias tarefas do projeto de uma vez
+     * (por ids e/ou por status atual). Retorna as tarefas alteradas.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<List<TaskDTO>> updateTaskStatuses(@PathVariable Long projectId,
+                                                            @Valid @RequestBody TaskStatusBatchDTO batchDTO) {
+        List<Task> updated = taskService.updateStatuses(projectId, batchDTO.getTaskIds(),
+                batchDTO.getCurrentStatus(), batchDTO.getStatus());
+        return ResponseEntity.ok(TaskMapper.toListDTO(updated));
+    }
+
+    /**
+     * Atualizar status da tarefa (via query nativa). Aceita If-Match como o PUT.
      */
     @PatchMapping("/{taskId}/status")
     public ResponseEntity<TaskDTO> updateTaskStatus(
             @PathVariable Long projectId,
             @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestParam("status") TaskStatus status
     ) {
-        Task updated = taskService.updateStatus(taskId, status);
-        return ResponseEntity.ok(TaskMapper.toDTO(updated));
+        Task updated = taskService.updateStatus(taskId, status, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(TaskMapper.toDTO(updated));
     }
 
 }
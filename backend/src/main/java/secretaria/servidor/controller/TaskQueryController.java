@@ -0,0 +1,41 @@
+package secretaria.servidor.controller;
+
+import secretaria.servidor.dto.CursorPage;
+import secretaria.servidor.dto.TaskDTO;
+import secretaria.servidor.dto.TaskFilter;
+import secretaria.servidor.dto.mapper.TaskMapper;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.service.TaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskQueryController {
+
+    @Autowired
+    private TaskService taskService;
+
+    /**
+     * Consultar tarefas de todos os projetos, filtrando por qualquer combinação de projectId, status,
+     * responsible, dueDaysFrom/dueDaysTo e trecho do title. Ordem por id (padrão) ou sort=dueDays;
+     * o cursor da próxima página vem no header X-Next-Cursor, como na listagem de projetos.
+     */
+    @GetMapping
+    public ResponseEntity<List<TaskDTO>> findTasks(
+            TaskFilter filter,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        CursorPage<Task> page = taskService.findPage(filter, sort, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.ofTasks(page.getItems()));
+        if (page.getNextCursor() != null) {
+            response.header(ProjectController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(TaskMapper.toListDTO(page.getItems()));
+    }
+}
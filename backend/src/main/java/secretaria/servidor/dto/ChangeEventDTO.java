@@ -0,0 +1,50 @@
+package secretaria.servidor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Evento do GET /api/events: o que mudou, sem o corpo da entidade.
+ * O cliente compara a versão com a que tem e busca de novo só o que ficou desatualizado.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+
+    /**
+     * "project" ou "task".
+     */
+    private String entity;
+
+    /**
+     * "created", "updated", "statusChanged" ou "deleted".
+     */
+    private String type;
+
+    /**
+     * Ausente quando várias tarefas do projeto foram criadas ou saíram de uma vez (ver count).
+     */
+    private Long id;
+
+    /**
+     * Projeto dono da tarefa (só em eventos de tarefa).
+     */
+    private Long projectId;
+
+    private Long version;
+
+    /**
+     * Status depois da escrita (ausente em "deleted").
+     */
+    private String status;
+
+    /**
+     * Quantas tarefas do projeto foram criadas ou apagadas de uma vez
+     * (só em "created" e "deleted" de tarefa sem id).
+     */
+    private Long count;
+}
@@ -0,0 +1,51 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.service.job.Job;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobDTO {
+
+    private String id;
+    private String type;
+    private Job.Status status;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failure;
+
+    /**
+     * Progresso: contadores do job (linhas lidas, gravadas, com erro, bytes lidos...).
+     */
+    private Map<String, Long> progress;
+
+    private long errorCount;
+
+    /**
+     * Os primeiros erros por linha (no máximo Job.MAX_ERRORS).
+     */
+    private List<Job.ItemError> errors;
+
+    public static JobDTO fromJob(Job job) {
+        return JobDTO.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .failure(job.getFailure())
+                .progress(job.counterValues())
+                .errorCount(job.getErrorCount().get())
+                .errors(job.errorList())
+                .build();
+    }
+}
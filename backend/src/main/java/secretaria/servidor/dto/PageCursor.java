@@ -0,0 +1,85 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset: carrega o id do último item entregue
+ * (e, nas listagens ordenadas por outra coluna, o valor dela nesse item).
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+    private static final String KEYED_PREFIX = "key:";
+
+    /**
+     * Posição numa listagem ordenada por (chave, id); a chave pode ser nula.
+     */
+    public record Position(Integer key, Long id) {
+    }
+
+    private PageCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(Integer lastKey, Long lastId) {
+        String raw = KEYED_PREFIX + (lastKey != null ? lastKey : "") + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retorna o id contido no cursor, ou {@code null} quando nenhum cursor foi informado.
+     */
+    public static Long decode(String cursor) {
+        String raw = raw(cursor, PREFIX);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(raw);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+
+    /**
+     * Retorna a posição contida num cursor de {@link #encode(Integer, Long)},
+     * ou {@code null} quando nenhum cursor foi informado.
+     */
+    public static Position decodePosition(String cursor) {
+        String raw = raw(cursor, KEYED_PREFIX);
+        if (raw == null) {
+            return null;
+        }
+        int separator = raw.indexOf(':');
+        try {
+            String key = raw.substring(0, separator);
+            return new Position(key.isEmpty() ? null : Integer.valueOf(key), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+
+    private static String raw(String cursor, String prefix) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(prefix)) {
+                throw new BusinessException("Cursor de paginação inválido.");
+            }
+            return raw.substring(prefix.length());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import secretaria.servidor.entity.Project;
 import secretaria.servidor.entity.enums.ProjectStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -20,16 +21,24 @@ public class ProjectDTO {
     private Long id;
 
     @NotBlank(message = "O nome do projeto é obrigatório.")
+    @Size(max = 255, message = "O nome do projeto deve ter no máximo 255 caracteres.")
     private String name;
 
     private String description;
     private LocalDate startDate;
     private LocalDate endDate;
+
+    @Size(max = 255, message = "A equipe responsável deve ter no máximo 255 caracteres.")
     private String teamResponsible;
 
     @NotNull(message = "O status do projeto é obrigatório.")
     private ProjectStatus status;
 
+    /**
+     * Somente leitura: o valor enviado de volta é ignorado (use o cabeçalho If-Match).
+     */
+    private Long version;
+
     private List<TaskDTO> tasks;
 
     /**
@@ -44,6 +53,7 @@ public class ProjectDTO {
                 .endDate(project.getEndDate())
                 .teamResponsible(project.getTeamResponsible())
                 .status(project.getStatus())
+                .version(project.getVersion())
                 .tasks(TaskMapper.toListDTO(project.getTasks()))
                 .build();
     }
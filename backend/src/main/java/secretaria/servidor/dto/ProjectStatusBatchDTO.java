@@ -0,0 +1,25 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.entity.enums.ProjectStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatusBatchDTO {
+
+    public static final int MAX_PROJECTS = 10_000;
+
+    @NotEmpty(message = "Informe ao menos um projeto.")
+    @Size(max = MAX_PROJECTS, message = "No máximo " + MAX_PROJECTS + " projetos por requisição.")
+    private List<Long> projectIds;
+
+    @NotNull(message = "O novo status é obrigatório.")
+    private ProjectStatus status;
+}
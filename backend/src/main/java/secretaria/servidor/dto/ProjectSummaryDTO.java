@@ -0,0 +1,38 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectSummaryDTO {
+
+    private Long id;
+    private String name;
+    private ProjectStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long taskCount;
+    private long finishedTaskCount;
+
+    /**
+     * Converter da projeção do repositório para DTO.
+     */
+    public static ProjectSummaryDTO fromProjection(ProjectSummary summary) {
+        return ProjectSummaryDTO.builder()
+                .id(summary.getId())
+                .name(summary.getName())
+                .status(summary.getStatus())
+                .startDate(summary.getStartDate())
+                .endDate(summary.getEndDate())
+                .taskCount(summary.getTaskCount() != null ? summary.getTaskCount() : 0L)
+                .finishedTaskCount(summary.getFinishedTaskCount() != null ? summary.getFinishedTaskCount() : 0L)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package secretaria.servidor.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsDTO {
+
+    private long totalProjects;
+    private Map<String, Long> projectsByStatus;
+
+    private long totalTasks;
+
+    /**
+     * Status da tarefa → responsável → quantidade.
+     */
+    private Map<String, Map<String, Long>> tasksByStatusAndResponsible;
+}
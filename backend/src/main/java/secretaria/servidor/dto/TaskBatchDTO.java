@@ -0,0 +1,22 @@
+package secretaria.servidor.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchDTO {
+
+    public static final int MAX_TASKS = 10_000;
+
+    @NotEmpty(message = "Informe ao menos uma tarefa.")
+    @Size(max = MAX_TASKS, message = "No máximo " + MAX_TASKS + " tarefas por requisição.")
+    @Valid
+    private List<TaskDTO> tasks;
+}
@@ -5,6 +5,7 @@ import secretaria.servidor.entity.enums.TaskResponsible;
 import secretaria.servidor.entity.enums.TaskStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter
@@ -17,6 +18,7 @@ public class TaskDTO {
     private Long id;
 
     @NotBlank(message = "Título da tarefa é obrigatório.")
+    @Size(max = 255, message = "Título da tarefa deve ter no máximo 255 caracteres.")
     private String title;
 
     private String description;
@@ -26,6 +28,16 @@ public class TaskDTO {
     @NotNull(message = "Status da tarefa é obrigatório.")
     private TaskStatus status;
 
+    /**
+     * Somente leitura: o valor enviado de volta é ignorado (use o cabeçalho If-Match).
+     */
+    private Long version;
+
+    /**
+     * Somente leitura: o projeto vem da URL (ou do projeto que contém a tarefa, na importação).
+     */
+    private Long projectId;
+
     public static TaskDTO fromEntity(Task task) {
         return TaskDTO.builder()
                 .id(task.getId())
@@ -34,6 +46,8 @@ public class TaskDTO {
                 .responsible(task.getResponsible())
                 .dueDays(task.getDueDays())
                 .status(task.getStatus())
+                .version(task.getVersion())
+                .projectId(task.getProject() != null ? task.getProject().getId() : null)
                 .build();
     }
 }
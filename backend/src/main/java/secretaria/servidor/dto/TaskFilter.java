@@ -0,0 +1,37 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import lombok.*;
+
+/**
+ * Filtros opcionais da consulta de tarefas em todos os projetos (query params).
+ * Qualquer combinação vale; os que vierem nulos são ignorados.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+
+    private Long projectId;
+
+    private TaskStatus status;
+
+    private TaskResponsible responsible;
+
+    /**
+     * Prazo mínimo (inclusive), em dias.
+     */
+    private Integer dueDaysFrom;
+
+    /**
+     * Prazo máximo (inclusive), em dias.
+     */
+    private Integer dueDaysTo;
+
+    /**
+     * Trecho do título, sem diferenciar maiúsculas de minúsculas.
+     */
+    private String title;
+}
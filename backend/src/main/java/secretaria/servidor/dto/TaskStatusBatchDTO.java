@@ -0,0 +1,29 @@
+package secretaria.servidor.dto;
+
+import secretaria.servidor.entity.enums.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Mudança de status em lote: as tarefas são escolhidas pelos ids e/ou pelo status atual
+ * (ex.: todas as EM_EXECUCAO do projeto).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusBatchDTO {
+
+    public static final int MAX_TASKS = 10_000;
+
+    @Size(max = MAX_TASKS, message = "No máximo " + MAX_TASKS + " tarefas por requisição.")
+    private List<Long> taskIds;
+
+    private TaskStatus currentStatus;
+
+    @NotNull(message = "O novo status é obrigatório.")
+    private TaskStatus status;
+}
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -17,10 +19,22 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "project")
+@NamedEntityGraph(name = Project.WITH_TASKS, attributeNodes = @NamedAttributeNode("tasks"))
 public class Project {
 
+    /**
+     * Plano de busca que carrega as tarefas junto com o projeto (um único SELECT com join).
+     */
+    public static final String WITH_TASKS = "Project.withTasks";
+
+
+    /**
+     * Sequence com otimizador pooled, como em Task: permite INSERTs de projetos em lote
+     * (importação). A sequence é a mesma criada pelo SERIAL da tabela.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome do projeto é obrigatório.")
@@ -49,6 +63,21 @@ public class Project {
     @Enumerated(EnumType.STRING)
     private ProjectStatus status;
 
+    /**
+     * Versão para controle otimista de concorrência; é também o ETag do projeto.
+     * Sobe a cada alteração no projeto e também a cada alteração nas suas tarefas,
+     * já que elas fazem parte da representação do projeto.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Nas listagens paginadas (onde não dá para usar join fetch com LIMIT) as tarefas
+     * são carregadas em lote: um SELECT ... WHERE project_id IN (...) para até 100 projetos.
+     */
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<Task> tasks = new ArrayList<>();
 }
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
@@ -16,8 +17,13 @@ import lombok.*;
 @Table(name = "task")
 public class Task {
 
+    /**
+     * Sequence com otimizador pooled (reserva 50 ids por chamada ao banco), o que permite
+     * ao Hibernate agrupar os INSERTs em lote. Com IDENTITY cada INSERT precisa ir sozinho.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Título da tarefa é obrigatório.")
@@ -36,7 +42,15 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private TaskStatus status;
 
-    @ManyToOne
+    /**
+     * Versão para controle otimista de concorrência; é também o ETag da tarefa.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 }
@@ -0,0 +1,8 @@
+package secretaria.servidor.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
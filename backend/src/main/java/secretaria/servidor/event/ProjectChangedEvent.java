@@ -0,0 +1,35 @@
+package secretaria.servidor.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import secretaria.servidor.entity.enums.ProjectStatus;
+
+/**
+ * Publicado pelo ProjectService a cada escrita em um projeto.
+ * Os ouvintes usam @TransactionalEventListener, então só reagem depois do commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProjectChangedEvent {
+
+    private final ChangeType type;
+    private final Long projectId;
+    private final String name;
+
+    /**
+     * Status antes da escrita (null em CREATED).
+     */
+    private final ProjectStatus previousStatus;
+
+    /**
+     * Status depois da escrita (null em DELETED).
+     */
+    private final ProjectStatus status;
+
+    /**
+     * Versão do projeto depois da escrita (em DELETED, a última versão gravada).
+     */
+    private final Long version;
+}
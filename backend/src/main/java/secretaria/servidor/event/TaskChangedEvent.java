@@ -0,0 +1,38 @@
+package secretaria.servidor.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+/**
+ * Publicado pelo TaskService a cada escrita em uma tarefa. Toda escrita em tarefa
+ * também muda a lista de tarefas do projeto dono.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    private final ChangeType type;
+    private final Long taskId;
+    private final Long projectId;
+
+    /**
+     * Status e responsável antes da escrita (null em CREATED).
+     */
+    private final TaskStatus previousStatus;
+    private final TaskResponsible previousResponsible;
+
+    /**
+     * Status e responsável depois da escrita (null em DELETED).
+     */
+    private final TaskStatus status;
+    private final TaskResponsible responsible;
+
+    /**
+     * Versão da tarefa depois da escrita (em DELETED, a última versão gravada).
+     */
+    private final Long version;
+}
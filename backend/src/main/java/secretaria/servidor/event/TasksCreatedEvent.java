@@ -0,0 +1,30 @@
+package secretaria.servidor.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import secretaria.servidor.repository.projection.TaskStatusCount;
+
+import java.util.List;
+
+/**
+ * Publicado quando várias tarefas de um projeto são criadas de uma vez (criação em lote e importação),
+ * no lugar de um TaskChangedEvent por tarefa: um lote de 10.000 tarefas vira uma invalidação de cache,
+ * uma atualização dos contadores e um evento no /api/events.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TasksCreatedEvent {
+
+    private final Long projectId;
+
+    /**
+     * Tarefas criadas por status e responsável.
+     */
+    private final List<TaskStatusCount> counts;
+
+    public long getTotal() {
+        return counts.stream().mapToLong(TaskStatusCount::getTotal).sum();
+    }
+}
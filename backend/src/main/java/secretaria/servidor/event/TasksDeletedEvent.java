@@ -0,0 +1,30 @@
+package secretaria.servidor.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import secretaria.servidor.repository.projection.TaskStatusCount;
+
+import java.util.List;
+
+/**
+ * Publicado pelo ProjectService quando apaga de uma vez as tarefas de um projeto (na exclusão
+ * do projeto ou em cada lote da exclusão em segundo plano), no lugar de um TaskChangedEvent
+ * por tarefa.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TasksDeletedEvent {
+
+    private final Long projectId;
+
+    /**
+     * Tarefas apagadas por status e responsável.
+     */
+    private final List<TaskStatusCount> counts;
+
+    public long getTotal() {
+        return counts.stream().mapToLong(TaskStatusCount::getTotal).sum();
+    }
+}
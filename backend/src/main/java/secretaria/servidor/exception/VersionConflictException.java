@@ -0,0 +1,11 @@
+package secretaria.servidor.exception;
+
+/**
+ * A versão informada (If-Match) não é mais a atual: outro cliente alterou o registro antes.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
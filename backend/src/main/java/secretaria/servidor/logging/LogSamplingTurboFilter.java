@@ -0,0 +1,71 @@
+package secretaria.servidor.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Amostragem de log por logger: dos eventos até {@code maxLevel} (INFO por padrão) dos loggers
+ * sob {@code logger}, só 1 a cada {@code rate} segue adiante. WARN e ERROR passam sempre.
+ *
+ * Por ser um TurboFilter, decide antes de o Logback montar o evento: as mensagens descartadas
+ * não alocam nada nem chegam ao appender. Configurado no logback-spring.xml, um por logger:
+ *
+ * <pre>
+ * &lt;turboFilter class="secretaria.servidor.logging.LogSamplingTurboFilter"&gt;
+ *     &lt;logger&gt;secretaria.servidor.service.ProjectService&lt;/logger&gt;
+ *     &lt;rate&gt;10&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String logger;
+    private int rate = 1;
+    private Level maxLevel = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format nulo: é só um isXxxEnabled(), que não conta como mensagem
+        if (!isStarted() || format == null || level.toInt() > maxLevel.toInt() || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (logger == null || logger.isBlank()) {
+            addError("Informe o <logger> a ser amostrado.");
+            return;
+        }
+        if (rate < 1) {
+            addError("O <rate> deve ser maior que zero.");
+            return;
+        }
+        super.start();
+    }
+
+    private boolean matches(String name) {
+        return name.startsWith(logger)
+                && (name.length() == logger.length() || name.charAt(logger.length()) == '.');
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+}
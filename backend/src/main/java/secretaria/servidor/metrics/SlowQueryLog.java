@@ -0,0 +1,107 @@
+package secretaria.servidor.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * As N consultas mais lentas da última janela (por padrão, 20 na última hora), uma por SQL:
+ * cada SQL guarda só a sua execução mais lenta. Execuções abaixo do mínimo (threshold) nunca
+ * entram, nem com o ranking vazio: assim os statements de 0–1 ms, que são quase todos, não
+ * pagam a normalização do SQL nem o bloco sincronizado.
+ *
+ * {@link #accepts(long)} é só uma comparação com o mínimo e a leitura de campos voláteis, então
+ * pode ser chamado em todo statement; o trabalho (sincronizado) só acontece para quem entra no ranking.
+ */
+public class SlowQueryLog {
+
+    public record SlowQuery(String sql, String caller, long elapsedMillis, String parameters, Instant at) {
+    }
+
+    private final int size;
+    private final long windowMillis;
+    private final long thresholdMillis;
+    private final Clock clock;
+
+    // Protegido por this
+    private final Map<String, SlowQuery> bySql = new HashMap<>();
+
+    // Menor tempo do ranking quando ele está cheio (-1 enquanto há vaga) e quando a entrada mais antiga expira
+    private volatile long floorMillis = -1;
+    private volatile long nextExpiryMillis = Long.MAX_VALUE;
+
+    public SlowQueryLog(int size, Duration window, Duration threshold, Clock clock) {
+        this.size = size;
+        this.windowMillis = window.toMillis();
+        this.thresholdMillis = threshold.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Indica se uma execução com esse tempo entraria no ranking (ou se há entradas vencidas para tirar).
+     * Abaixo do mínimo, sempre falso; as vencidas saem então na próxima gravação ou no {@link #snapshot()}.
+     */
+    public boolean accepts(long elapsedMillis) {
+        return elapsedMillis >= thresholdMillis
+                && (elapsedMillis > floorMillis || clock.millis() >= nextExpiryMillis);
+    }
+
+    /**
+     * Registra a execução se ela for uma das N mais lentas. Chamador e parâmetros só são
+     * calculados quando a execução entra no ranking.
+     */
+    public synchronized void record(String sql, long elapsedMillis,
+                                    Supplier<String> caller, Supplier<String> parameters) {
+        if (elapsedMillis < thresholdMillis) {
+            return;
+        }
+        long now = clock.millis();
+        bySql.values().removeIf(query -> query.at().toEpochMilli() + windowMillis <= now);
+
+        SlowQuery existing = bySql.get(sql);
+        boolean full = bySql.size() >= size && existing == null;
+        if ((existing == null || elapsedMillis > existing.elapsedMillis())
+                && (!full || elapsedMillis > fastest().elapsedMillis())) {
+            if (full) {
+                bySql.remove(fastest().sql());
+            }
+            bySql.put(sql, new SlowQuery(sql, caller.get(), elapsedMillis, parameters.get(), Instant.ofEpochMilli(now)));
+        }
+        refreshBounds();
+    }
+
+    /**
+     * O ranking atual, da mais lenta para a mais rápida.
+     */
+    public synchronized List<SlowQuery> snapshot() {
+        long now = clock.millis();
+        if (bySql.values().removeIf(query -> query.at().toEpochMilli() + windowMillis <= now)) {
+            refreshBounds();
+        }
+        List<SlowQuery> queries = new ArrayList<>(bySql.values());
+        queries.sort(Comparator.comparingLong(SlowQuery::elapsedMillis).reversed());
+        return queries;
+    }
+
+    public synchronized void clear() {
+        bySql.clear();
+        refreshBounds();
+    }
+
+    private SlowQuery fastest() {
+        return bySql.values().stream().min(Comparator.comparingLong(SlowQuery::elapsedMillis)).orElseThrow();
+    }
+
+    private void refreshBounds() {
+        floorMillis = bySql.size() < size ? -1 : fastest().elapsedMillis();
+        nextExpiryMillis = bySql.values().stream()
+                .mapToLong(query -> query.at().toEpochMilli() + windowMillis)
+                .min().orElse(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,27 @@
+package secretaria.servidor.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os SQLs que o Hibernate prepara na thread atual (inclusive os nativos).
+ * O {@link SqlStatementsPerRequestFilter} zera a contagem no início da requisição
+ * e registra o total no fim.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,123 @@
+package secretaria.servidor.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Rastreio de SQL no nível do DataSource, no lugar do spring.jpa.show-sql.
+ *
+ * Cronometra cada statement (só a execução, não a leitura do ResultSet) e loga apenas os
+ * que passam do limite (WARN) ou caem na amostragem (INFO), com o método de repositório
+ * que os disparou e um resumo dos parâmetros. Os mais lentos também vão para o
+ * {@link SlowQueryLog}. Para os demais o custo é cronometrar e comparar alguns números:
+ * o SQL só é normalizado depois que se sabe que ele vai para o log ou para o ranking.
+ */
+@Slf4j
+public class SqlTraceListener implements QueryExecutionListener {
+
+    private static final int MAX_PARAMETERS = 10;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String APP_PACKAGE = "secretaria.servidor.";
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+    private final int maxParameterLength;
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlTraceListener(Duration slowThreshold, double sampleRate, int maxParameterLength,
+                            SlowQueryLog slowQueryLog) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.maxParameterLength = maxParameterLength;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= slowThresholdMillis;
+        boolean sampled = !slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        boolean ranked = slowQueryLog.accepts(elapsed);
+        if (!slow && !sampled && !ranked) {
+            return;
+        }
+
+        String sql = queryInfoList.stream()
+                .map(query -> query.getQuery().replaceAll("\\s+", " ").trim())
+                .collect(Collectors.joining("; "));
+        if (slow || sampled) {
+            String caller = caller();
+            String parameters = parameters(execInfo, queryInfoList);
+            if (slow) {
+                log.warn("SQL lento ({} ms) em {}: {} {}", elapsed, caller, sql, parameters);
+            } else {
+                log.info("SQL ({} ms) em {}: {} {}", elapsed, caller, sql, parameters);
+            }
+        }
+        if (ranked) {
+            slowQueryLog.record(sql, elapsed, SqlTraceListener::caller, () -> parameters(execInfo, queryInfoList));
+        }
+    }
+
+    /**
+     * Método de repositório em execução ou, fora de um repositório (carga lazy, EntityManager
+     * direto), o primeiro método da aplicação na pilha.
+     */
+    static String caller() {
+        String repositoryMethod = RepositoryMethodTracker.current();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        Optional<String> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE)
+                        && !f.getClassName().startsWith(APP_PACKAGE + "metrics.")
+                        && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName()));
+        return frame.orElse("?");
+    }
+
+    /**
+     * Parâmetros do primeiro conjunto (em lotes, mais quantos conjuntos vieram), cada valor cortado.
+     */
+    private String parameters(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return "";
+        }
+        List<ParameterSetOperation> first = queryInfoList.get(0).getParametersList().get(0);
+        String values = first.stream()
+                .limit(MAX_PARAMETERS)
+                .map(this::parameterValue)
+                .collect(Collectors.joining(", ", "[", first.size() > MAX_PARAMETERS
+                        ? ", ... +" + (first.size() - MAX_PARAMETERS) + "]" : "]"));
+        return execInfo.isBatch() && execInfo.getBatchSize() > 1
+                ? values + " (lote de " + execInfo.getBatchSize() + ")"
+                : values;
+    }
+
+    private String parameterValue(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if ("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        Object value = args[1];
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        return text.length() > maxParameterLength ? text.substring(0, maxParameterLength) + "…" : text;
+    }
+}
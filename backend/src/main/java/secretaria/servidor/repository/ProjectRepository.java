@@ -1,41 +1,216 @@
 package secretaria.servidor.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.transaction.annotation.Transactional;
 import secretaria.servidor.entity.Project;
 import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.repository.projection.ProjectName;
+import secretaria.servidor.repository.projection.ProjectStatusCount;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import secretaria.servidor.repository.projection.ProjectVersion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Exemplo de queries nativas.
  */
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
 
     /**
-     * Buscar projetos pelo nome (parte do nome), ignorando caixa.
+     * Início comum das consultas de resumo ({@link ProjectSummary}): as colunas do projeto e a contagem
+     * das tarefas no próprio banco. Cada consulta completa com o WHERE e fecha com {@link #SUMMARY_GROUP_BY}.
      */
-    @Query(value = """
-           SELECT * 
-           FROM project p
-           WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))
-           """, nativeQuery = true)
-    List<Project> findByNameContainingIgnoreCase(String name);
+    String SUMMARY_SELECT = """
+           SELECT p.id AS id, p.name AS name, p.status AS status,
+                  p.startDate AS startDate, p.endDate AS endDate,
+                  COUNT(t.id) AS taskCount,
+                  SUM(CASE WHEN t.status = secretaria.servidor.entity.enums.TaskStatus.FINALIZADO
+                           THEN 1 ELSE 0 END) AS finishedTaskCount,
+                  p.version AS version
+           FROM Project p
+           LEFT JOIN p.tasks t
+           """;
+
+    String SUMMARY_GROUP_BY = """
+           GROUP BY p.id, p.name, p.status, p.startDate, p.endDate, p.version
+           """;
 
     /**
-     * Buscar projetos por status (nativo).
+     * Condição da busca por nome no banco: o nome sem caixa e sem os acentos comuns contém o termo,
+     * já normalizado por {@code TextNormalizer} (o mesmo do índice de busca em memória). A expressão
+     * do nome é a do índice de trigramas do PostgreSQL (V7): se mudar aqui, muda lá.
      */
-    @Query(value = """
-           SELECT * 
-           FROM project p
+    String NAME_MATCHES = """
+           TRANSLATE(LOWER(p.name), 'áàâãäåéèêëíìîïóòôõöúùûüçñý', 'aaaaaaeeeeiiiiooooouuuucny')
+               LIKE CONCAT('%', :name, '%')
+           """;
+
+    /**
+     * Página de projetos após o id informado (keyset), com filtros opcionais.
+     * Percorre o índice da chave primária a partir do cursor, então o custo
+     * não cresce com o número da página.
+     */
+    @Query("""
+           SELECT p
+           FROM Project p
+           WHERE p.id > :afterId
+             AND (:status IS NULL OR p.status = :status)
+             AND (:startDateFrom IS NULL OR p.startDate >= :startDateFrom)
+             AND (:endDateTo IS NULL OR p.endDate <= :endDateTo)
+           ORDER BY p.id
+           """)
+    List<Project> findPageAfter(Long afterId, ProjectStatus status,
+                                LocalDate startDateFrom, LocalDate endDateTo, Limit limit);
+
+    /**
+     * Id e versão da mesma página de {@link #findPageAfter}, para comparar o If-None-Match
+     * antes de ler os projetos com as tarefas.
+     */
+    @Query("""
+           SELECT p.id AS id, p.version AS version
+           FROM Project p
+           WHERE p.id > :afterId
+             AND (:status IS NULL OR p.status = :status)
+             AND (:startDateFrom IS NULL OR p.startDate >= :startDateFrom)
+             AND (:endDateTo IS NULL OR p.endDate <= :endDateTo)
+           ORDER BY p.id
+           """)
+    List<ProjectVersion> findVersionPageAfter(Long afterId, ProjectStatus status,
+                                              LocalDate startDateFrom, LocalDate endDateTo, Limit limit);
+
+    /**
+     * Mesma paginação de {@link #findPageAfter}, mas lendo só as colunas do resumo
+     * e contando as tarefas no próprio banco.
+     */
+    @Query(SUMMARY_SELECT + """
+           WHERE p.id > :afterId
+             AND (:status IS NULL OR p.status = :status)
+             AND (:startDateFrom IS NULL OR p.startDate >= :startDateFrom)
+             AND (:endDateTo IS NULL OR p.endDate <= :endDateTo)
+           """ + SUMMARY_GROUP_BY + "ORDER BY p.id")
+    List<ProjectSummary> findSummaryPageAfter(Long afterId, ProjectStatus status,
+                                              LocalDate startDateFrom, LocalDate endDateTo, Limit limit);
+
+    /**
+     * Resumo dos projetos cujo nome contém o texto informado (já normalizado), ignorando caixa e acentos.
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + NAME_MATCHES + SUMMARY_GROUP_BY + "ORDER BY p.id")
+    List<ProjectSummary> findSummariesByName(String name, Limit limit);
+
+    /**
+     * Resumo dos projetos com os ids informados (resultado do índice de busca).
+     */
+    @Query(SUMMARY_SELECT + """
+           WHERE p.id IN :ids
+           """ + SUMMARY_GROUP_BY)
+    List<ProjectSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Resumo dos projetos de um status.
+     */
+    @Query(SUMMARY_SELECT + """
            WHERE p.status = :status
-           """, nativeQuery = true)
-    List<Project> findByStatus(String status);
+           """ + SUMMARY_GROUP_BY + "ORDER BY p.id")
+    List<ProjectSummary> findSummariesByStatus(ProjectStatus status);
+
+    /**
+     * Ids dos projetos cujo nome contém o texto informado (já normalizado), ignorando caixa e acentos
+     * (com o LIMIT no SQL).
+     * Só os ids: com as tarefas no mesmo SELECT (fetch join), o Hibernate aplicaria o limite
+     * em memória, depois de ler todos os projetos encontrados; as tarefas vêm depois,
+     * por {@link #findAllWithTasksByIdIn}.
+     */
+    @Query("SELECT p.id FROM Project p WHERE " + NAME_MATCHES + "ORDER BY p.id")
+    List<Long> findIdsByName(String name, Limit limit);
+
+    /**
+     * Id e versão dos projetos com os ids informados.
+     */
+    @Query("""
+           SELECT p.id AS id, p.version AS version
+           FROM Project p
+           WHERE p.id IN :ids
+           """)
+    List<ProjectVersion> findVersionsByIdIn(Collection<Long> ids);
+
+    /**
+     * Projetos com os ids informados, já com as tarefas (resultado do índice de busca).
+     */
+    @EntityGraph(Project.WITH_TASKS)
+    @Query("""
+           SELECT p
+           FROM Project p
+           WHERE p.id IN :ids
+           """)
+    List<Project> findAllWithTasksByIdIn(Collection<Long> ids);
+
+    /**
+     * Id e nome de todos os projetos, lidos em streaming para montar o índice de busca.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           SELECT p.id AS id, p.name AS name
+           FROM Project p
+           """)
+    Stream<ProjectName> streamAllNames();
+
+    /**
+     * Todos os projetos em ordem de id, lidos do cursor aos poucos (exportação).
+     * As tarefas vêm pelo @BatchSize conforme cada projeto é serializado.
+     * Precisa rodar dentro de uma transação para o PostgreSQL respeitar o fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Project p ORDER BY p.id")
+    Stream<Project> streamAll();
+
+    /**
+     * Buscar projetos por status, já com as tarefas (entity graph), em ordem de id.
+     */
+    @EntityGraph(Project.WITH_TASKS)
+    @Query("""
+           SELECT p
+           FROM Project p
+           WHERE p.status = :status
+           ORDER BY p.id
+           """)
+    List<Project> findByStatus(ProjectStatus status);
+
+    /**
+     * Id e versão dos projetos de {@link #findByStatus}, na mesma ordem.
+     */
+    @Query("""
+           SELECT p.id AS id, p.version AS version
+           FROM Project p
+           WHERE p.status = :status
+           ORDER BY p.id
+           """)
+    List<ProjectVersion> findVersionsByStatus(ProjectStatus status);
+
+    /**
+     * Quantidade de projetos por status (só na carga dos contadores do painel).
+     */
+    @Query("SELECT p.status AS status, COUNT(p) AS total FROM Project p GROUP BY p.status")
+    List<ProjectStatusCount> countByStatus();
 
     /**
      * Buscar todos os projetos finalizados (exemplo).
@@ -48,26 +223,29 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findAllFinishedProjects();
 
     /**
-     * Exemplo de atualização de status usando query nativa.
+     * Sobe a versão do projeto quando tarefas dele são criadas ou apagadas, para o ETag do projeto
+     * (cuja resposta inclui as tarefas) mudar junto. Os UPDATEs de tarefas já sobem a versão no
+     * próprio comando (ver TaskRepositoryCustom).
      */
     @Modifying
     @Transactional
-    @Query(value = """
-    UPDATE project
-    SET status = :status
-    WHERE id = :projectId
-    """, nativeQuery = true)
-    void updateStatusNative(Long projectId, String status);
+    @Query("UPDATE Project p SET p.version = p.version + 1 WHERE p.id = :projectId")
+    int incrementVersion(Long projectId);
 
-    @Modifying
-    @Transactional
-    @Query(value = """
-    UPDATE project
-    SET name = :name, description = :description, start_date = :startDate, 
-        end_date = :endDate, status = :status
-    WHERE id = :projectId
-    """, nativeQuery = true)
-    void updateProjectNative(Long projectId, String name, String description,
-                             LocalDate startDate, LocalDate endDate, String status);
+    /**
+     * Projeto (sem as tarefas) com a linha travada até o fim da transação. No PostgreSQL a trava
+     * também segura inserções de tarefas no projeto (a checagem da chave estrangeira espera por ela).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Project p WHERE p.id = :projectId")
+    Optional<Project> lockById(Long projectId);
+
+    /**
+     * Apaga só a linha do projeto; as tarefas precisam ter saído antes
+     * (TaskRepository.deleteByProjectReturningCounts).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM project WHERE id = :projectId", nativeQuery = true)
+    int deleteByIdNative(Long projectId);
 
 }
@@ -0,0 +1,42 @@
+package secretaria.servidor.repository;
+
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ProjectRepositoryCustom {
+
+    /**
+     * Muda o status dos projetos num único UPDATE e devolve as linhas alteradas.
+     */
+    List<Project> updateStatusReturning(Collection<Long> projectIds, ProjectStatus status);
+
+    /**
+     * Status atual dos projetos, com as linhas travadas (FOR UPDATE) até o fim da transação.
+     * Usado antes do UPDATE em lote para saber de qual status cada projeto saiu.
+     */
+    Map<Long, ProjectStatus> lockStatuses(Collection<Long> projectIds);
+
+    /**
+     * Grava os dados do projeto (nome, descrição, datas, equipe e status) num UPDATE condicional, sem ler antes,
+     * e devolve o projeto como o banco o gravou (tarefas carregadas só se acessadas) com o status de antes
+     * (vazio se não existe ou, com expectedVersion, se já está em outra versão). O projeto não pode estar
+     * carregado na mesma transação.
+     */
+    Optional<Updated> updateReturningPreviousStatus(Long projectId, Project data, Long expectedVersion);
+
+    /**
+     * Como {@link #updateReturningPreviousStatus}, mudando só o status.
+     */
+    Optional<Updated> updateStatusReturningPreviousStatus(Long projectId, ProjectStatus status, Long expectedVersion);
+
+    /**
+     * O projeto depois do UPDATE e o status que ele tinha antes.
+     */
+    record Updated(Project project, ProjectStatus previousStatus) {
+    }
+}
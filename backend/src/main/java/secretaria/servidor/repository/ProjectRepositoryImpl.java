@@ -0,0 +1,127 @@
+package secretaria.servidor.repository;
+
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReturningQueries returningQueries;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Project> updateStatusReturning(Collection<Long> projectIds, ProjectStatus status) {
+        String update = """
+                UPDATE project
+                SET status = :status, version = version + 1
+                WHERE id IN (:projectIds)""";
+
+        NativeQuery<Project> query = entityManager
+                .createNativeQuery(returningQueries.returningAll(update), Project.class)
+                .unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Project.class);
+        query.setParameter("status", status.name());
+        query.setParameterList("projectIds", projectIds);
+        return query.getResultList();
+    }
+
+    @Override
+    public Map<Long, ProjectStatus> lockStatuses(Collection<Long> projectIds) {
+        List<Tuple> rows = entityManager
+                .createQuery("SELECT p.id AS id, p.status AS status FROM Project p WHERE p.id IN :projectIds",
+                        Tuple.class)
+                .setParameter("projectIds", projectIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        Map<Long, ProjectStatus> statuses = new HashMap<>();
+        rows.forEach(row -> statuses.put(row.get("id", Long.class), row.get("status", ProjectStatus.class)));
+        return statuses;
+    }
+
+    @Override
+    public Optional<Updated> updateReturningPreviousStatus(Long projectId, Project data, Long expectedVersion) {
+        String set = """
+                name = :name, description = :description, start_date = :startDate, end_date = :endDate,
+                team_responsible = :teamResponsible, status = :status, version = target.version + 1""";
+        return updateOne(projectId, expectedVersion, set, query -> {
+            query.setParameter("name", data.getName());
+            query.setParameter("description", data.getDescription(), String.class);
+            query.setParameter("startDate", data.getStartDate(), LocalDate.class);
+            query.setParameter("endDate", data.getEndDate(), LocalDate.class);
+            query.setParameter("teamResponsible", data.getTeamResponsible(), String.class);
+            query.setParameter("status", data.getStatus().name());
+        });
+    }
+
+    @Override
+    public Optional<Updated> updateStatusReturningPreviousStatus(Long projectId, ProjectStatus status,
+                                                                 Long expectedVersion) {
+        return updateOne(projectId, expectedVersion, "status = :status, version = target.version + 1",
+                query -> query.setParameter("status", status.name()));
+    }
+
+    /**
+     * No PostgreSQL, um UPDATE só, que devolve a linha nova e o status de antes; no H2, o status de
+     * antes com a linha travada e depois o UPDATE (ver {@link ReturningQueries#singleStatement}).
+     * O projeto devolvido fica no contexto de persistência: é o estado atual.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Updated> updateOne(Long projectId, Long expectedVersion, String set,
+                                        Consumer<NativeQuery<?>> bindSet) {
+        String where = "target.id = :projectId" + (expectedVersion != null ? " AND target.version = :version" : "");
+        if (returningQueries.singleStatement()) {
+            NativeQuery<Object[]> query = entityManager
+                    .createNativeQuery(returningQueries.updateReturningWithPreviousStatus("project", set, where))
+                    .unwrap(NativeQuery.class);
+            query.addEntity("target", Project.class);
+            query.addScalar("previous_status", String.class);
+            query.addSynchronizedEntityClass(Project.class);
+            bindWhere(query, projectId, expectedVersion);
+            bindSet.accept(query);
+            return query.getResultList().stream()
+                    .findFirst()
+                    .map(row -> new Updated((Project) row[0], ProjectStatus.valueOf((String) row[1])));
+        }
+
+        NativeQuery<String> lock = entityManager
+                .createNativeQuery(returningQueries.lockStatus("project", where), String.class)
+                .unwrap(NativeQuery.class);
+        bindWhere(lock, projectId, expectedVersion);
+        Optional<ProjectStatus> previousStatus = lock.getResultList().stream().findFirst().map(ProjectStatus::valueOf);
+        if (previousStatus.isEmpty()) {
+            return Optional.empty();
+        }
+        NativeQuery<Project> update = entityManager
+                .createNativeQuery(returningQueries.returningAll(
+                        "UPDATE project target SET " + set + " WHERE target.id = :projectId"), Project.class)
+                .unwrap(NativeQuery.class);
+        update.addSynchronizedEntityClass(Project.class);
+        bindWhere(update, projectId, null);
+        bindSet.accept(update);
+        return Optional.of(new Updated(update.getSingleResult(), previousStatus.get()));
+    }
+
+    private static void bindWhere(NativeQuery<?> query, Long projectId, Long expectedVersion) {
+        query.setParameter("projectId", projectId);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+    }
+}
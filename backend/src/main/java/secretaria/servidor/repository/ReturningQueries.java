@@ -0,0 +1,114 @@
+package secretaria.servidor.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monta UPDATEs/DELETEs que devolvem as linhas alteradas no mesmo comando, sem um SELECT extra:
+ * "UPDATE ... RETURNING" no PostgreSQL e "SELECT * FROM FINAL/OLD TABLE (UPDATE ...)" no H2
+ * (banco dos testes). O banco é verificado uma vez, na subida: com outro, a aplicação não sobe.
+ */
+@Component
+class ReturningQueries {
+
+    private final boolean postgres;
+
+    @Autowired
+    ReturningQueries(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect());
+    }
+
+    ReturningQueries(Dialect dialect) {
+        if (!(dialect instanceof PostgreSQLDialect) && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("UPDATE/DELETE com retorno das linhas não suportado para " + dialect);
+        }
+        this.postgres = dialect instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Se o banco faz cada escrita num comando só: no PostgreSQL o UPDATE das tarefas já sobe a versão do
+     * projeto ({@link #returningAllTouchingProject}, {@link #updateReturningPreviousTouchingProject}) e o do
+     * projeto já devolve o status de antes ({@link #updateReturningWithPreviousStatus}). O H2 não aceita
+     * UPDATE dentro de WITH nem devolve as duas versões da linha: lá quem chama faz dois comandos simples na
+     * mesma transação (o UPDATE do projeto depois, se alguma tarefa mudou; o {@link #lockStatus} antes).
+     */
+    boolean singleStatement() {
+        return postgres;
+    }
+
+    String returningAll(String updateSql) {
+        return postgres
+                ? updateSql + " RETURNING *"
+                : "SELECT * FROM FINAL TABLE (" + updateSql + ")";
+    }
+
+    /**
+     * Como {@link #returningAll}, para tarefas. No PostgreSQL o mesmo comando sobe a versão do
+     * projeto das linhas alteradas (o ETag do projeto cobre as tarefas); se nenhuma mudou, não sobe.
+     */
+    String returningAllTouchingProject(String updateSql) {
+        return postgres
+                ? touchingProject(updateSql + " RETURNING *")
+                : returningAll(updateSql);
+    }
+
+    /**
+     * UPDATE que devolve as linhas como estavam antes dele (os eventos precisam do status de antes).
+     * O SET e o WHERE usam o alias "target" para a tabela. No PostgreSQL as linhas são lidas e travadas
+     * num sub-SELECT ... FOR UPDATE dentro do próprio UPDATE, que reavalia o WHERE se esperou por outra
+     * transação; no H2, "OLD TABLE". A versão do projeto sobe como em {@link #returningAllTouchingProject}.
+     */
+    String updateReturningPreviousTouchingProject(String table, String set, String where) {
+        if (!postgres) {
+            return "SELECT * FROM OLD TABLE (UPDATE " + table + " target SET " + set + " WHERE " + where + ")";
+        }
+        return touchingProject("UPDATE " + table + " target SET " + set
+                + " FROM (SELECT * FROM " + table + " target WHERE " + where + " FOR UPDATE) previous"
+                + " WHERE target.id = previous.id RETURNING previous.*");
+    }
+
+    /**
+     * PostgreSQL: UPDATE que devolve as linhas como ficaram e, na coluna previous_status, o status de
+     * antes, lido e travado num sub-SELECT ... FOR UPDATE dentro do próprio UPDATE. O SET e o WHERE
+     * usam o alias "target". Só no PostgreSQL (ver {@link #singleStatement}).
+     */
+    String updateReturningWithPreviousStatus(String table, String set, String where) {
+        return "UPDATE " + table + " target SET " + set
+                + " FROM (SELECT id, status FROM " + table + " target WHERE " + where + " FOR UPDATE) previous"
+                + " WHERE target.id = previous.id RETURNING target.*, previous.status AS previous_status";
+    }
+
+    /**
+     * H2: o status de antes, com a linha travada até o fim da transação, antes do {@link #returningAll}.
+     */
+    String lockStatus(String table, String where) {
+        return "SELECT status FROM " + table + " target WHERE " + where + " FOR UPDATE";
+    }
+
+    /**
+     * Consulta sobre as linhas apagadas pelo DELETE, no mesmo comando. A consulta lê da tabela
+     * "deleted": "WITH deleted AS (DELETE ... RETURNING *) SELECT ... FROM deleted ..." no PostgreSQL
+     * e "SELECT ... FROM OLD TABLE (DELETE ...) deleted ..." no H2.
+     */
+    String selectFromDeleted(String deleteSql, String select, String tail) {
+        return postgres
+                ? "WITH deleted AS (" + deleteSql + " RETURNING *) " + select + " FROM deleted " + tail
+                : select + " FROM OLD TABLE (" + deleteSql + ") deleted " + tail;
+    }
+
+    /**
+     * PostgreSQL: o UPDATE das tarefas (com RETURNING) num WITH, seguido do UPDATE da versão dos
+     * projetos das linhas que ele devolveu; sem linhas, o segundo não acha nenhum projeto.
+     */
+    private static String touchingProject(String updateReturning) {
+        return "WITH updated AS (" + updateReturning + "),"
+                + " touched AS (UPDATE project SET version = version + 1"
+                + " WHERE EXISTS (SELECT 1 FROM updated) AND id IN (SELECT project_id FROM updated))"
+                + " SELECT * FROM updated";
+    }
+}
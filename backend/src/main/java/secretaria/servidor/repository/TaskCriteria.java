@@ -0,0 +1,34 @@
+package secretaria.servidor.repository;
+
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Critérios da consulta de tarefas ({@link TaskRepositoryCustom#findPage}): os nulos ficam fora do WHERE.
+ * {@code title} já vem em minúsculas e sem espaços nas pontas.
+ */
+@Value
+@Builder
+public class TaskCriteria {
+
+    Long projectId;
+    TaskStatus status;
+    TaskResponsible responsible;
+    Integer dueDaysFrom;
+    Integer dueDaysTo;
+    String title;
+
+    /**
+     * Ordena por (prazo, id), com as tarefas sem prazo no fim; senão só por id.
+     */
+    boolean orderByDueDays;
+
+    /**
+     * Tarefas sem prazo podem entrar no resultado (não há filtro de prazo).
+     */
+    boolean includesNullDueDays() {
+        return dueDaysFrom == null && dueDaysTo == null;
+    }
+}
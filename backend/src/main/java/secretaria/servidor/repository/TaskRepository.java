@@ -1,9 +1,8 @@
 package secretaria.servidor.repository;
 
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.transaction.annotation.Transactional;
 import secretaria.servidor.entity.Task;
 import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.projection.TaskStatusCount;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,7 +12,7 @@ import java.util.List;
  * Exemplo de queries nativas para tasks.
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     @Query(value = """
            SELECT * 
@@ -29,19 +28,20 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            """, nativeQuery = true)
     List<Task> findAllByStatus(String status);
 
-    @Modifying
-    @Transactional
-    @Query(value = """
-       UPDATE task
-       SET status = :status
-       WHERE id = :taskId
-       """, nativeQuery = true)
-    void updateStatusNative(Long taskId, String status);
-
     @Query(value = """
        SELECT * FROM task
        WHERE id = :taskId
        """, nativeQuery = true)
     Task findByIdNative(Long taskId);
 
+    /**
+     * Quantidade de tarefas por status e responsável (só na carga dos contadores do painel).
+     */
+    @Query("""
+       SELECT t.status AS status, t.responsible AS responsible, COUNT(t) AS total
+       FROM Task t
+       GROUP BY t.status, t.responsible
+       """)
+    List<TaskStatusCount> countByStatusAndResponsible();
+
 }
@@ -0,0 +1,55 @@
+package secretaria.servidor.repository;
+
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.projection.TaskStatusCount;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Muda o status das tarefas do projeto num único UPDATE e devolve as linhas alteradas.
+     * Filtra pelos ids informados e/ou pelo status atual (nulos são ignorados). O mesmo comando
+     * sobe a versão do projeto.
+     */
+    List<Task> updateStatusReturning(Long projectId, Collection<Long> taskIds,
+                                     TaskStatus currentStatus, TaskStatus status);
+
+    /**
+     * Status atual das tarefas que {@link #updateStatusReturning} alteraria, com as linhas
+     * travadas (FOR UPDATE) até o fim da transação.
+     */
+    Map<Long, TaskStatus> lockStatuses(Long projectId, Collection<Long> taskIds, TaskStatus currentStatus);
+
+    /**
+     * Apaga as tarefas do projeto num único DELETE (no máximo limit, as de menor id, se informado)
+     * e devolve quantas saíram por status e responsável, agrupadas no próprio banco.
+     */
+    List<TaskStatusCount> deleteByProjectReturningCounts(Long projectId, Integer limit);
+
+    /**
+     * Grava os dados da tarefa (título, descrição, responsável, prazo e status) num único UPDATE, sem ler antes,
+     * e devolve a tarefa como estava antes dele, desanexada (vazio se não existe ou, com expectedVersion,
+     * se já está em outra versão). A tarefa não pode estar carregada na mesma transação.
+     * O mesmo comando sobe a versão do projeto da tarefa.
+     */
+    Optional<Task> updateReturningPrevious(Long taskId, Task data, Long expectedVersion);
+
+    /**
+     * Como {@link #updateReturningPrevious}, mudando só o status.
+     */
+    Optional<Task> updateStatusReturningPrevious(Long taskId, TaskStatus status, Long expectedVersion);
+
+    /**
+     * Até limit tarefas de qualquer projeto que atendem aos critérios, depois da posição informada
+     * (afterId nulo = primeira página). O WHERE só leva os critérios preenchidos, para o banco
+     * escolher o índice composto daquela combinação (ver V4__task_query_indexes.sql).
+     * Na ordem por prazo, afterDueDays nulo com afterId preenchido quer dizer que a página anterior
+     * já terminou entre as tarefas sem prazo.
+     */
+    List<Task> findPage(TaskCriteria criteria, Integer afterDueDays, Long afterId, int limit);
+}
@@ -0,0 +1,233 @@
+package secretaria.servidor.repository;
+
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.projection.TaskCount;
+import secretaria.servidor.repository.projection.TaskStatusCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReturningQueries returningQueries;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> updateStatusReturning(Long projectId, Collection<Long> taskIds,
+                                            TaskStatus currentStatus, TaskStatus status) {
+        StringBuilder update = new StringBuilder("""
+                UPDATE task
+                SET status = :status, version = version + 1
+                WHERE project_id = :projectId""");
+        if (taskIds != null) {
+            update.append(" AND id IN (:taskIds)");
+        }
+        if (currentStatus != null) {
+            update.append(" AND status = :currentStatus");
+        }
+
+        NativeQuery<Task> query = entityManager
+                .createNativeQuery(returningQueries.returningAllTouchingProject(update.toString()), Task.class)
+                .unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Task.class);
+        query.addSynchronizedEntityClass(Project.class);
+        query.setParameter("status", status.name());
+        query.setParameter("projectId", projectId);
+        if (taskIds != null) {
+            query.setParameterList("taskIds", taskIds);
+        }
+        if (currentStatus != null) {
+            query.setParameter("currentStatus", currentStatus.name());
+        }
+        List<Task> updated = query.getResultList();
+        touchProject(updated, projectId);
+        return updated;
+    }
+
+    @Override
+    public Map<Long, TaskStatus> lockStatuses(Long projectId, Collection<Long> taskIds, TaskStatus currentStatus) {
+        StringBuilder select = new StringBuilder(
+                "SELECT t.id AS id, t.status AS status FROM Task t WHERE t.project.id = :projectId");
+        if (taskIds != null) {
+            select.append(" AND t.id IN :taskIds");
+        }
+        if (currentStatus != null) {
+            select.append(" AND t.status = :currentStatus");
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(select.toString(), Tuple.class)
+                .setParameter("projectId", projectId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        if (taskIds != null) {
+            query.setParameter("taskIds", taskIds);
+        }
+        if (currentStatus != null) {
+            query.setParameter("currentStatus", currentStatus);
+        }
+        Map<Long, TaskStatus> statuses = new HashMap<>();
+        query.getResultList().forEach(row -> statuses.put(row.get("id", Long.class), row.get("status", TaskStatus.class)));
+        return statuses;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskStatusCount> deleteByProjectReturningCounts(Long projectId, Integer limit) {
+        String delete = limit == null
+                ? "DELETE FROM task WHERE project_id = :projectId"
+                : """
+                DELETE FROM task
+                WHERE id IN (SELECT id FROM task WHERE project_id = :projectId ORDER BY id LIMIT :limit)""";
+        String sql = returningQueries.selectFromDeleted(delete,
+                "SELECT status, responsible, COUNT(*) AS total", "GROUP BY status, responsible");
+
+        NativeQuery<Tuple> query = entityManager.createNativeQuery(sql, Tuple.class).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Task.class);
+        query.setParameter("projectId", projectId);
+        if (limit != null) {
+            query.setParameter("limit", limit);
+        }
+        return query.getResultList().stream()
+                .<TaskStatusCount>map(row -> new TaskCount(
+                        enumOrNull(TaskStatus.class, row.get("status", String.class)),
+                        enumOrNull(TaskResponsible.class, row.get("responsible", String.class)),
+                        row.get("total", Number.class).longValue()))
+                .toList();
+    }
+
+    @Override
+    public Optional<Task> updateReturningPrevious(Long taskId, Task data, Long expectedVersion) {
+        String set = """
+                title = :title, description = :description, responsible = :responsible, due_days = :dueDays,
+                status = :status, version = target.version + 1""";
+        return updateOne(taskId, expectedVersion, set, query -> {
+            query.setParameter("title", data.getTitle());
+            query.setParameter("description", data.getDescription(), String.class);
+            query.setParameter("responsible",
+                    data.getResponsible() != null ? data.getResponsible().name() : null, String.class);
+            query.setParameter("dueDays", data.getDueDays(), Integer.class);
+            query.setParameter("status", data.getStatus().name());
+        });
+    }
+
+    @Override
+    public Optional<Task> updateStatusReturningPrevious(Long taskId, TaskStatus status, Long expectedVersion) {
+        return updateOne(taskId, expectedVersion, "status = :status, version = target.version + 1",
+                query -> query.setParameter("status", status.name()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Task> updateOne(Long taskId, Long expectedVersion, String set, Consumer<NativeQuery<Task>> bindSet) {
+        String where = "target.id = :taskId" + (expectedVersion != null ? " AND target.version = :version" : "");
+        String sql = returningQueries.updateReturningPreviousTouchingProject("task", set, where);
+        NativeQuery<Task> query = entityManager.createNativeQuery(sql, Task.class).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Task.class);
+        query.addSynchronizedEntityClass(Project.class);
+        query.setParameter("taskId", taskId);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        bindSet.accept(query);
+        List<Task> previous = query.getResultList();
+        // Estado de antes do UPDATE: não pode ficar no contexto de persistência como se fosse o atual
+        previous.forEach(entityManager::detach);
+        Optional<Task> task = previous.stream().findFirst();
+        task.ifPresent(found -> touchProject(previous, found.getProject().getId()));
+        return task;
+    }
+
+    /**
+     * Sobe a versão do projeto se alguma tarefa mudou, quando o banco não faz isso no próprio
+     * UPDATE das tarefas (ver {@link ReturningQueries#singleStatement}).
+     */
+    private void touchProject(List<Task> updated, Long projectId) {
+        if (!updated.isEmpty() && !returningQueries.singleStatement()) {
+            entityManager.createNativeQuery("UPDATE project SET version = version + 1 WHERE id = :projectId")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Project.class)
+                    .setParameter("projectId", projectId)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    public List<Task> findPage(TaskCriteria criteria, Integer afterDueDays, Long afterId, int limit) {
+        if (!criteria.isOrderByDueDays()) {
+            return findPage(criteria, "t.id > :afterId", Map.of("afterId", afterId != null ? afterId : 0L),
+                    "t.id", limit);
+        }
+
+        // Primeiro as tarefas com prazo, por (prazo, id); quando acabam, as sem prazo, por id
+        List<Task> page = new ArrayList<>();
+        boolean pastDueDays = afterId != null && afterDueDays == null;
+        if (!pastDueDays) {
+            page.addAll(afterId == null
+                    ? findPage(criteria, "t.dueDays IS NOT NULL", Map.of(), "t.dueDays, t.id", limit)
+                    : findPage(criteria, "(t.dueDays, t.id) > (:afterDueDays, :afterId)",
+                            Map.of("afterDueDays", afterDueDays, "afterId", afterId), "t.dueDays, t.id", limit));
+        }
+        if (page.size() < limit && criteria.includesNullDueDays()) {
+            page.addAll(findPage(criteria, "t.dueDays IS NULL AND t.id > :afterId",
+                    Map.of("afterId", pastDueDays ? afterId : 0L), "t.id", limit - page.size()));
+        }
+        return page;
+    }
+
+    private List<Task> findPage(TaskCriteria criteria, String keyset, Map<String, Object> keysetParameters,
+                                String orderBy, int limit) {
+        StringBuilder select = new StringBuilder("SELECT t FROM Task t WHERE ").append(keyset);
+        Map<String, Object> parameters = new HashMap<>(keysetParameters);
+        if (criteria.getProjectId() != null) {
+            select.append(" AND t.project.id = :projectId");
+            parameters.put("projectId", criteria.getProjectId());
+        }
+        if (criteria.getStatus() != null) {
+            select.append(" AND t.status = :status");
+            parameters.put("status", criteria.getStatus());
+        }
+        if (criteria.getResponsible() != null) {
+            select.append(" AND t.responsible = :responsible");
+            parameters.put("responsible", criteria.getResponsible());
+        }
+        if (criteria.getDueDaysFrom() != null) {
+            select.append(" AND t.dueDays >= :dueDaysFrom");
+            parameters.put("dueDaysFrom", criteria.getDueDaysFrom());
+        }
+        if (criteria.getDueDaysTo() != null) {
+            select.append(" AND t.dueDays <= :dueDaysTo");
+            parameters.put("dueDaysTo", criteria.getDueDaysTo());
+        }
+        if (criteria.getTitle() != null) {
+            // No PostgreSQL atende pelo GIN de trigramas sobre lower(title) (V5)
+            select.append(" AND LOWER(t.title) LIKE :title ESCAPE '!'");
+            parameters.put("title", "%" + criteria.getTitle().replaceAll("[!%_]", "!$0") + "%");
+        }
+        select.append(" ORDER BY ").append(orderBy);
+
+        TypedQuery<Task> query = entityManager.createQuery(select.toString(), Task.class).setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private static <E extends Enum<E>> E enumOrNull(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+}
@@ -0,0 +1,11 @@
+package secretaria.servidor.repository.projection;
+
+/**
+ * Apenas id e nome, usados para montar o índice de busca.
+ */
+public interface ProjectName {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,13 @@
+package secretaria.servidor.repository.projection;
+
+import secretaria.servidor.entity.enums.ProjectStatus;
+
+/**
+ * Quantidade de projetos em um status, usada para recarregar os contadores do painel.
+ */
+public interface ProjectStatusCount {
+
+    ProjectStatus getStatus();
+
+    long getTotal();
+}
@@ -0,0 +1,29 @@
+package secretaria.servidor.repository.projection;
+
+import secretaria.servidor.entity.enums.ProjectStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção de resumo do projeto: só as colunas usadas pelos dashboards
+ * e a contagem de tarefas, sem carregar entidades no contexto de persistência.
+ * A versão vai para o ETag (ela sobe também quando uma tarefa muda, então cobre as contagens).
+ */
+public interface ProjectSummary {
+
+    Long getId();
+
+    String getName();
+
+    ProjectStatus getStatus();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    Long getTaskCount();
+
+    Long getFinishedTaskCount();
+
+    Long getVersion();
+}
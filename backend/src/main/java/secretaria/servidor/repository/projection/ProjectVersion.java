@@ -0,0 +1,11 @@
+package secretaria.servidor.repository.projection;
+
+/**
+ * Apenas id e versão: o suficiente para o ETag de uma lista de projetos, sem ler as tarefas.
+ */
+public interface ProjectVersion {
+
+    Long getId();
+
+    Long getVersion();
+}
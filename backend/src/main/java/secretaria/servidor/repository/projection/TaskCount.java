@@ -0,0 +1,38 @@
+package secretaria.servidor.repository.projection;
+
+import lombok.Value;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TaskStatusCount} montado fora de uma consulta: contagens devolvidas por um DELETE ... RETURNING
+ * ou feitas em memória sobre as tarefas recém-gravadas.
+ */
+@Value
+public class TaskCount implements TaskStatusCount {
+
+    TaskStatus status;
+    TaskResponsible responsible;
+    long total;
+
+    /**
+     * Agrupa as tarefas por status e responsável.
+     */
+    public static List<TaskStatusCount> of(Collection<Task> tasks) {
+        // A chave é o par status/responsável (total zero); o valor, a contagem
+        Map<TaskCount, Long> totals = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            totals.merge(new TaskCount(task.getStatus(), task.getResponsible(), 0), 1L, Long::sum);
+        }
+        return totals.entrySet().stream()
+                .<TaskStatusCount>map(entry -> new TaskCount(
+                        entry.getKey().getStatus(), entry.getKey().getResponsible(), entry.getValue()))
+                .toList();
+    }
+}
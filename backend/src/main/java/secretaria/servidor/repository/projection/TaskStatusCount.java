@@ -0,0 +1,16 @@
+package secretaria.servidor.repository.projection;
+
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+/**
+ * Quantidade de tarefas por status e responsável, usada para recarregar os contadores do painel.
+ */
+public interface TaskStatusCount {
+
+    TaskStatus getStatus();
+
+    TaskResponsible getResponsible();
+
+    long getTotal();
+}
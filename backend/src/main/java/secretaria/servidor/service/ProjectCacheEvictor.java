@@ -0,0 +1,55 @@
+package secretaria.servidor.service;
+
+import secretaria.servidor.config.CacheConfig;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.event.TasksCreatedEvent;
+import secretaria.servidor.event.TasksDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida o cache de projetos depois do commit de cada escrita (antes dele, uma leitura logo em
+ * seguida ainda acharia o valor antigo no banco e o recolocaria). Não fecha todas as corridas: uma
+ * leitura que carregou o projeto antes do commit e só grava no cache depois da invalidação deixa
+ * lá o valor antigo, até a próxima escrita ou o TTL (app.cache.projects.ttl).
+ */
+@Slf4j
+@Component
+public class ProjectCacheEvictor {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        evict(CacheConfig.PROJECTS, event.getProjectId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // O projeto é cacheado com as tarefas
+        evict(CacheConfig.PROJECTS, event.getProjectId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksCreated(TasksCreatedEvent event) {
+        evict(CacheConfig.PROJECTS, event.getProjectId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksDeleted(TasksDeletedEvent event) {
+        evict(CacheConfig.PROJECTS, event.getProjectId());
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
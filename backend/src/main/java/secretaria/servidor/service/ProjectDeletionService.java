@@ -0,0 +1,81 @@
+package secretaria.servidor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import secretaria.servidor.config.ExecutorConfig;
+import secretaria.servidor.exception.NotFoundException;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.job.Job;
+import secretaria.servidor.service.job.JobRegistry;
+
+/**
+ * Exclusão de projetos muito grandes em segundo plano, acompanhada em /api/jobs/{id}.
+ * As tarefas saem em lotes de {@code app.projects.delete-chunk-size}, cada lote na sua
+ * transação (travas curtas, e a exclusão avança mesmo com escritas concorrentes no banco);
+ * no fim, {@link ProjectService#delete} apaga o que sobrou e o projeto numa última transação.
+ */
+@Slf4j
+@Service
+public class ProjectDeletionService {
+
+    public static final String JOB_TYPE = "project-delete";
+
+    @Value("${app.projects.delete-chunk-size:5000}")
+    private int chunkSize;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.JOBS)
+    private TaskExecutor taskExecutor;
+
+    /**
+     * Agenda a exclusão e retorna o job. Projeto inexistente falha já aqui (404); sem vaga no
+     * executor de jobs, o job fica como falho e a requisição recebe 503.
+     */
+    public Job start(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new NotFoundException("Projeto não encontrado para o ID: " + projectId);
+        }
+        Job job = jobRegistry.create(JOB_TYPE);
+        log.info("Exclusão {} do projeto ID {} agendada", job.getId(), projectId);
+        try {
+            taskExecutor.execute(() -> run(job, projectId));
+        } catch (TaskRejectedException e) {
+            log.warn("Exclusão {} do projeto ID {} recusada: executor de jobs cheio", job.getId(), projectId);
+            job.fail("Executor de jobs cheio");
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(Job job, Long projectId) {
+        job.start();
+        try {
+            long deleted;
+            do {
+                deleted = projectService.deleteTasks(projectId, chunkSize);
+                job.add("tasksDeleted", deleted);
+            } while (deleted == chunkSize);
+            projectService.delete(projectId);
+            job.add("projectsDeleted", 1);
+            job.complete();
+            log.info("Exclusão {} concluída: {}", job.getId(), job.counterValues());
+        } catch (Exception e) {
+            log.error("Exclusão {} do projeto ID {} interrompida", job.getId(), projectId, e);
+            job.fail(e.getMessage());
+        }
+    }
+}
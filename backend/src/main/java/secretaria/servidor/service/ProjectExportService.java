@@ -0,0 +1,81 @@
+package secretaria.servidor.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.repository.ProjectRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de todos os projetos (com tarefas) em NDJSON, um projeto por linha.
+ * Lê do cursor em blocos, escreve e limpa o contexto de persistência a cada bloco,
+ * então o uso de memória não depende de quantos projetos existem.
+ */
+@Slf4j
+@Service
+public class ProjectExportService {
+
+    /**
+     * Projetos por bloco: a cada bloco as tarefas são carregadas em lote (@BatchSize),
+     * a saída é enviada ao cliente e o contexto de persistência é limpo.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escreve os projetos em {@code out} e retorna quantos foram exportados.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<Project> projects = projectRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            List<Project> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<Project> iterator = projects.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    exported += writeChunk(chunk, generator);
+                }
+            }
+        }
+        log.info("Exportação concluída: {} projetos", exported);
+        return exported;
+    }
+
+    private int writeChunk(List<Project> chunk, JsonGenerator generator) throws IOException {
+        for (Project project : chunk) {
+            generator.writeObject(ProjectDTO.fromEntity(project));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        int written = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+}
@@ -1,120 +1,373 @@
 package secretaria.servidor.service;
 
-import secretaria.servidor.dto.mapper.ProjectMapper;
-import secretaria.servidor.dto.mapper.TaskMapper;
+import secretaria.servidor.config.CacheConfig;
+import secretaria.servidor.config.ReadWriteRoutingDataSource;
+import secretaria.servidor.dto.CursorPage;
+import secretaria.servidor.dto.PageCursor;
+import secretaria.servidor.dto.ProjectFilter;
 import secretaria.servidor.entity.Project;
-import secretaria.servidor.entity.Task;
 import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TasksDeletedEvent;
 import secretaria.servidor.exception.BusinessException;
 import secretaria.servidor.exception.NotFoundException;
+import secretaria.servidor.exception.VersionConflictException;
 import secretaria.servidor.repository.ProjectRepository;
 import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import secretaria.servidor.repository.projection.ProjectVersion;
+import secretaria.servidor.repository.projection.TaskStatusCount;
+import secretaria.servidor.service.search.ProjectSearchIndex;
+import secretaria.servidor.service.search.TextNormalizer;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99})
 public class ProjectService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
     @Autowired
     private ProjectRepository projectRepository;
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Listar todos os projetos.
+     * Listar projetos paginados por cursor (keyset sobre o id).
      */
-    public List<Project> listAll() {
-        log.info("Listando todos os projetos...");
-        return projectRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Project> listPage(ProjectFilter filter, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long afterId = PageCursor.decode(cursor);
+
+        log.debug("Listando projetos após o ID: {} (tamanho {})", afterId, pageSize);
+        // Busca um item a mais para saber se existe próxima página
+        List<Project> rows = projectRepository.findPageAfter(
+                afterId != null ? afterId : 0L,
+                filter.getStatus(),
+                filter.getStartDateFrom(),
+                filter.getEndDateTo(),
+                Limit.of(pageSize + 1));
+        CursorPage<Project> page = toPage(rows, pageSize, Project::getId);
+        // A primeira coleção carregada traz as tarefas de até 100 projetos da página (@BatchSize)
+        page.getItems().forEach(this::withTasks);
+        return page;
     }
 
     /**
-     * Buscar projeto por ID (lança NotFoundException se não achar).
+     * Id e versão da mesma página de {@link #listPage} e {@link #listSummaryPage}, para o If-None-Match.
      */
-    public Project findById(Long id) {
-        return projectRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Projeto não encontrado para o ID: " + id));
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectVersion> listVersionPage(ProjectFilter filter, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long afterId = PageCursor.decode(cursor);
+
+        List<ProjectVersion> rows = projectRepository.findVersionPageAfter(
+                afterId != null ? afterId : 0L,
+                filter.getStatus(),
+                filter.getStartDateFrom(),
+                filter.getEndDateTo(),
+                Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, ProjectVersion::getId);
     }
 
     /**
-     * Criar novo projeto.
+     * Listar resumos de projetos (sem descrição nem tarefas), paginados como {@link #listPage}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectSummary> listSummaryPage(ProjectFilter filter, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long afterId = PageCursor.decode(cursor);
+
+        List<ProjectSummary> rows = projectRepository.findSummaryPageAfter(
+                afterId != null ? afterId : 0L,
+                filter.getStatus(),
+                filter.getStartDateFrom(),
+                filter.getEndDateTo(),
+                Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, ProjectSummary::getId);
+    }
+
+    /**
+     * Buscar projeto por ID, com as tarefas (lança NotFoundException se não achar).
+     * Fica em cache como {@link ProjectSnapshot} imutável; o ProjectCacheEvictor invalida nas escritas.
+     * Lê do primário mesmo com réplica: logo depois da invalidação, uma réplica atrasada
+     * recolocaria no cache a versão antiga.
+     */
+    @Cacheable(CacheConfig.PROJECTS)
+    @Transactional(readOnly = true)
+    public ProjectSnapshot findById(Long id) {
+        return ReadWriteRoutingDataSource.usePrimary(() -> {
+            Project project = findExisting(id);
+            Hibernate.initialize(project.getTasks());
+            return ProjectSnapshot.of(project);
+        });
+    }
+
+    /**
+     * Criar novo projeto. Um id vindo do cliente é ignorado: o projeto é sempre novo.
      */
     public Project create(Project project) {
+        project.setId(null);
         // Exemplo de validações de negócio
         validateProjectDates(project);
         validateStatus(project.getStatus());
 
         log.info("Criando projeto: {}", project.getName());
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(
+                ChangeType.CREATED, saved.getId(), saved.getName(), null, saved.getStatus(), saved.getVersion()));
+        return saved;
     }
 
     /**
-     * Atualizar um projeto existente.
+     * Atualizar um projeto existente com um UPDATE condicional, sem ler o projeto antes; o projeto
+     * devolvido é o que o banco gravou, e as tarefas (que a resposta inclui) vêm num SELECT depois.
+     * Com expectedVersion (If-Match), falha se o projeto já mudou desde aquela versão.
      */
-    public Project updateProject(Long projectId, Project newData) {
-        Project existing = projectRepository.findById(projectId)
-                .orElseThrow(() -> new NotFoundException("Projeto não encontrado para ID: " + projectId));
-
-        existing.setName(newData.getName());
-        existing.setDescription(newData.getDescription());
-        existing.setStartDate(newData.getStartDate());
-        existing.setEndDate(newData.getEndDate());
-        existing.setStatus(newData.getStatus());
-        existing.setTeamResponsible(newData.getTeamResponsible());
-
+    @Transactional
+    public Project updateProject(Long projectId, Project newData, Long expectedVersion) {
         log.info("Atualizando projeto ID: {}", projectId);
-        return projectRepository.save(existing);
+        ProjectRepository.Updated updated = projectRepository.updateReturningPreviousStatus(
+                        projectId, newData, expectedVersion)
+                .orElseThrow(() -> notUpdated(projectId, expectedVersion));
+        Project saved = withTasks(updated.project());
+        eventPublisher.publishEvent(new ProjectChangedEvent(ChangeType.UPDATED, saved.getId(), saved.getName(),
+                updated.previousStatus(), saved.getStatus(), saved.getVersion()));
+        return saved;
     }
 
 
     /**
-     * Excluir um projeto.
+     * Excluir um projeto com as tarefas, numa transação curta: trava o projeto, apaga as tarefas
+     * com um único DELETE (sem carregá-las) e depois o projeto. O custo não depende de entidades
+     * em memória; para projetos muito grandes, ver ProjectDeletionService (em lotes).
      */
+    @Transactional
     public void delete(Long id) {
-        Project project = findById(id);
+        Project project = projectRepository.lockById(id)
+                .orElseThrow(() -> new NotFoundException("Projeto não encontrado para o ID: " + id));
         log.info("Excluindo projeto ID: {}", id);
-        projectRepository.delete(project);
+        deleteTaskRows(id, null);
+        projectRepository.deleteByIdNative(id);
+        eventPublisher.publishEvent(new ProjectChangedEvent(
+                ChangeType.DELETED, id, project.getName(), project.getStatus(), null, project.getVersion()));
+    }
+
+    /**
+     * Apagar as tarefas do projeto (no máximo limit, se informado) sem excluir o projeto.
+     * Sobe a versão do projeto, como qualquer escrita nas tarefas dele. Retorna quantas saíram.
+     */
+    @Transactional
+    public long deleteTasks(Long projectId, Integer limit) {
+        long deleted = deleteTaskRows(projectId, limit);
+        if (deleted > 0) {
+            projectRepository.incrementVersion(projectId);
+        }
+        return deleted;
+    }
+
+    private long deleteTaskRows(Long projectId, Integer limit) {
+        List<TaskStatusCount> counts = taskRepository.deleteByProjectReturningCounts(projectId, limit);
+        TasksDeletedEvent event = new TasksDeletedEvent(projectId, counts);
+        if (event.getTotal() > 0) {
+            eventPublisher.publishEvent(event);
+        }
+        return event.getTotal();
     }
 
     /**
-     * Atualizar status via query nativa.
+     * Atualizar status com um único UPDATE condicional (só na versão expectedVersion, se informada).
+     * O 404 vem do UPDATE não ter achado a linha, sem consulta antes.
      */
-    public Project updateStatus(Long id, ProjectStatus status) {
-        // Verifica se projeto existe antes de atualizar
-        Project project = findById(id);
+    @Transactional
+    public Project updateStatus(Long id, ProjectStatus status, Long expectedVersion) {
         if (status == null) {
             throw new BusinessException("Status inválido.");
         }
         log.info("Atualizando status do projeto ID: {} para {}", id, status);
-        projectRepository.updateStatusNative(id, status.name());
-        project.setStatus(status);
+        ProjectRepository.Updated updated = projectRepository.updateStatusReturningPreviousStatus(
+                        id, status, expectedVersion)
+                .orElseThrow(() -> notUpdated(id, expectedVersion));
+        Project project = withTasks(updated.project());
+        eventPublisher.publishEvent(new ProjectChangedEvent(ChangeType.STATUS_CHANGED, id, project.getName(),
+                updated.previousStatus(), status, project.getVersion()));
         return project;
     }
 
     /**
-     * Listar projetos pelo nome (uso de native query).
+     * Mudar o status de vários projetos com um único UPDATE ... RETURNING.
+     * Ids inexistentes são ignorados; o retorno traz só os projetos alterados (404 se nenhum existia).
+     * Antes do UPDATE, os status atuais são lidos com as linhas travadas, para os eventos
+     * saberem de qual status cada projeto saiu.
      */
-    public List<Project> findByName(String name) {
-        return projectRepository.findByNameContainingIgnoreCase(name);
+    @Transactional
+    public List<Project> updateStatuses(List<Long> projectIds, ProjectStatus status) {
+        if (status == null) {
+            throw new BusinessException("Status inválido.");
+        }
+        log.info("Atualizando status de {} projetos para {}", projectIds.size(), status);
+        Map<Long, ProjectStatus> previousStatuses = projectRepository.lockStatuses(projectIds);
+        List<Project> updated = projectRepository.updateStatusReturning(projectIds, status);
+        if (updated.isEmpty()) {
+            throw new NotFoundException("Nenhum dos projetos informados foi encontrado.");
+        }
+        updated.forEach(project -> eventPublisher.publishEvent(new ProjectChangedEvent(
+                ChangeType.STATUS_CHANGED, project.getId(), project.getName(),
+                previousStatuses.get(project.getId()), status, project.getVersion())));
+        updated.forEach(this::withTasks);
+        return updated;
     }
 
     /**
-     * Listar projetos por status (uso de native query).
+     * Buscar projetos pelo nome (sem acento/caixa), ordenados por relevância.
+     * Usa o índice em memória; enquanto ele não foi carregado, cai na busca no banco
+     * (a página de ids com LIMIT, depois os projetos com as tarefas).
      */
+    @Transactional(readOnly = true)
+    public List<Project> findByName(String name, Integer limit) {
+        int max = resolveSearchLimit(limit);
+        List<Long> ids = searchIds(name, max);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, projectRepository.findAllWithTasksByIdIn(ids), Project::getId);
+    }
+
+    /**
+     * Ids dos projetos pelo nome, por relevância: do índice em memória ou, enquanto ele não carregou,
+     * do banco, com o termo normalizado do mesmo jeito (sem acento/caixa).
+     */
+    private List<Long> searchIds(String name, int max) {
+        if (projectSearchIndex.isReady()) {
+            return projectSearchIndex.search(name, max);
+        }
+        String term = TextNormalizer.normalize(name);
+        return term.isEmpty() ? List.of() : projectRepository.findIdsByName(term, Limit.of(max));
+    }
+
+    /**
+     * Id e versão dos projetos de {@link #findByName} e {@link #findSummariesByName}, na mesma ordem.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectVersion> findVersionsByName(String name, Integer limit) {
+        int max = resolveSearchLimit(limit);
+        List<Long> ids = searchIds(name, max);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, projectRepository.findVersionsByIdIn(ids), ProjectVersion::getId);
+    }
+
+    /**
+     * Resumos dos projetos pelo nome, na mesma ordem de {@link #findByName}.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectSummary> findSummariesByName(String name, Integer limit) {
+        int max = resolveSearchLimit(limit);
+        if (!projectSearchIndex.isReady()) {
+            String term = TextNormalizer.normalize(name);
+            return term.isEmpty() ? List.of() : projectRepository.findSummariesByName(term, Limit.of(max));
+        }
+        List<Long> ids = projectSearchIndex.search(name, max);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, projectRepository.findSummariesByIdIn(ids), ProjectSummary::getId);
+    }
+
+    /**
+     * Resumos dos projetos por status.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectSummary> findSummariesByStatus(ProjectStatus status) {
+        return projectRepository.findSummariesByStatus(status);
+    }
+
+    /**
+     * Id e versão dos projetos de {@link #findByStatus} e {@link #findSummariesByStatus}, na mesma ordem.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectVersion> findVersionsByStatus(ProjectStatus status) {
+        return projectRepository.findVersionsByStatus(status);
+    }
+
+    /**
+     * Listar projetos por status (com as tarefas). Sem cache: uma entrada seria a lista inteira de
+     * um status, com todas as tarefas, e pode ser a tabela toda.
+     */
+    @Transactional(readOnly = true)
     public List<Project> findByStatus(ProjectStatus status) {
-        return projectRepository.findByStatus(status.name());
+        return projectRepository.findByStatus(status);
+    }
+
+    private <T> CursorPage<T> toPage(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, PageCursor.encode(idOf.apply(items.get(pageSize - 1))));
+    }
+
+    private static <T> List<T> inIdOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private int resolveSearchLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BusinessException("O limite da busca deve ser maior que zero.");
+        }
+        return Math.min(limit, MAX_SEARCH_LIMIT);
     }
 
     /**
-     * Valida datas (exemplo simples).
+     * Tamanho de página das listagens paginadas por cursor (também a de tarefas).
      */
-    private void validateProjectDates(Project project) {
+    static int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new BusinessException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Valida datas (exemplo simples). Pública para a importação em lote usar as mesmas regras.
+     */
+    public void validateProjectDates(Project project) {
         if (project.getStartDate() != null && project.getEndDate() != null) {
             if (project.getEndDate().isBefore(project.getStartDate())) {
                 throw new BusinessException("Data de término não pode ser anterior à data de início.");
@@ -129,10 +382,34 @@ public class ProjectService {
     /**
      * Valida o status do projeto (poderíamos ter regras de transição de status).
      */
-    private void validateStatus(ProjectStatus status) {
+    public void validateStatus(ProjectStatus status) {
         if (status == null) {
             throw new BusinessException("Status do projeto não pode ser nulo.");
         }
         // Exemplo de regras de status...
     }
+
+    private Project findExisting(Long id) {
+        return projectRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Projeto não encontrado para o ID: " + id));
+    }
+
+    /**
+     * Carrega as tarefas do projeto, que as respostas dos endpoints incluem, ainda na transação.
+     */
+    private Project withTasks(Project project) {
+        Hibernate.initialize(project.getTasks());
+        return project;
+    }
+
+    /**
+     * Por que o UPDATE condicional não alterou nada. Só com If-Match o projeto pode existir
+     * (em outra versão); só nesse caso há uma consulta a mais.
+     */
+    private RuntimeException notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion != null && projectRepository.existsById(id)) {
+            return new VersionConflictException("O projeto " + id + " não está na versão " + expectedVersion + ".");
+        }
+        return new NotFoundException("Projeto não encontrado para ID: " + id);
+    }
 }
@@ -0,0 +1,67 @@
+package secretaria.servidor.service;
+
+import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.dto.TaskDTO;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cópia imutável de um projeto com as tarefas, que é o que fica no cache de leitura: o mesmo
+ * valor é entregue a várias requisições ao mesmo tempo, então não pode ser uma entidade (mutável
+ * e que alguém poderia anexar a outra transação).
+ */
+public record ProjectSnapshot(Long id, String name, String description, LocalDate startDate, LocalDate endDate,
+                              String teamResponsible, ProjectStatus status, Long version, List<TaskSnapshot> tasks) {
+
+    public ProjectSnapshot {
+        tasks = List.copyOf(tasks);
+    }
+
+    public static ProjectSnapshot of(Project project) {
+        return new ProjectSnapshot(project.getId(), project.getName(), project.getDescription(),
+                project.getStartDate(), project.getEndDate(), project.getTeamResponsible(), project.getStatus(),
+                project.getVersion(), project.getTasks().stream().map(TaskSnapshot::of).toList());
+    }
+
+    public ProjectDTO toDTO() {
+        return ProjectDTO.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .startDate(startDate)
+                .endDate(endDate)
+                .teamResponsible(teamResponsible)
+                .status(status)
+                .version(version)
+                .tasks(tasks.stream().map(TaskSnapshot::toDTO).toList())
+                .build();
+    }
+
+    public record TaskSnapshot(Long id, String title, String description, TaskResponsible responsible,
+                               Integer dueDays, TaskStatus status, Long version, Long projectId) {
+
+        static TaskSnapshot of(Task task) {
+            return new TaskSnapshot(task.getId(), task.getTitle(), task.getDescription(), task.getResponsible(),
+                    task.getDueDays(), task.getStatus(), task.getVersion(), task.getProject().getId());
+        }
+
+        public TaskDTO toDTO() {
+            return TaskDTO.builder()
+                    .id(id)
+                    .title(title)
+                    .description(description)
+                    .responsible(responsible)
+                    .dueDays(dueDays)
+                    .status(status)
+                    .version(version)
+                    .projectId(projectId)
+                    .build();
+        }
+    }
+}
@@ -1,106 +1,305 @@
 package secretaria.servidor.service;
 
+import secretaria.servidor.dto.CursorPage;
+import secretaria.servidor.dto.PageCursor;
+import secretaria.servidor.dto.TaskFilter;
 import secretaria.servidor.entity.Project;
 import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.TaskResponsible;
 import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.event.TasksCreatedEvent;
 import secretaria.servidor.exception.BusinessException;
 import secretaria.servidor.exception.NotFoundException;
+import secretaria.servidor.exception.VersionConflictException;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskCriteria;
 import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.repository.projection.TaskCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @Service
+@Timed(value = "app.service", percentiles = {0.5, 0.95, 0.99})
 public class TaskService {
 
+    /**
+     * Quantas tarefas ficam no contexto de persistência antes de um flush + clear
+     * na criação em lote (múltiplo do hibernate.jdbc.batch_size).
+     */
+    private static final int BATCH_FLUSH_SIZE = 500;
+
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_DUE_DAYS = "dueDays";
+
     @Autowired
     private ProjectService projectService;
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Criar tarefa associada a um projeto.
+     * Toda escrita em tarefa também sobe a versão do projeto (o ETag do projeto cobre as tarefas).
+     * Um id vindo do cliente é ignorado: a tarefa é sempre nova.
      */
+    @Transactional
     public Task createTask(Long projectId, Task task) {
-        Project project = projectService.findById(projectId);
+        Project project = findProject(projectId);
+        task.setId(null);
         task.setProject(project);
 
         // Regras de negócio, se necessário
         validateTask(task);
 
         log.info("Criando tarefa '{}' para projeto ID: {}", task.getTitle(), projectId);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        projectRepository.incrementVersion(projectId);
+        publish(ChangeType.CREATED, saved, projectId, null, null);
+        return saved;
+    }
+
+    /**
+     * Criar várias tarefas de um projeto numa única transação.
+     * Valida a lista inteira antes de gravar e busca o projeto uma vez só; os INSERTs
+     * saem em lotes JDBC (hibernate.jdbc.batch_size). Publica um único TasksCreatedEvent para o lote.
+     * Como na importação, ids vindos do cliente são ignorados: todas as tarefas são novas.
+     */
+    @Transactional
+    public List<Task> createTasks(Long projectId, List<Task> tasks) {
+        Project project = findProject(projectId);
+        tasks.forEach(task -> task.setId(null));
+        tasks.forEach(this::validateTask);
+
+        log.info("Criando {} tarefas para projeto ID: {}", tasks.size(), projectId);
+        List<Task> saved = new ArrayList<>(tasks.size());
+        for (int from = 0; from < tasks.size(); from += BATCH_FLUSH_SIZE) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + BATCH_FLUSH_SIZE, tasks.size()));
+            chunk.forEach(task -> task.setProject(project));
+            saved.addAll(taskRepository.saveAll(chunk));
+            // Mantém o contexto de persistência pequeno em listas grandes
+            entityManager.flush();
+            entityManager.clear();
+        }
+        projectRepository.incrementVersion(projectId);
+        // Um evento para o lote inteiro, não um por tarefa
+        eventPublisher.publishEvent(new TasksCreatedEvent(projectId, TaskCount.of(saved)));
+        return saved;
     }
 
     /**
      * Listar tarefas de um projeto específico.
+     * Vem do projeto em cache (que já carrega as tarefas), então também lança 404 se o projeto não existe.
      */
-    public List<Task> listTasksByProject(Long projectId) {
-        projectService.findById(projectId); // garante que o projeto existe
-        return taskRepository.findAllByProjectId(projectId);
+    @Transactional(readOnly = true)
+    public List<ProjectSnapshot.TaskSnapshot> listTasksByProject(Long projectId) {
+        return projectService.findById(projectId).tasks();
     }
 
     /**
-     * Atualizar tarefa.
+     * Consultar tarefas de todos os projetos por qualquer combinação de filtros, paginadas por cursor
+     * (keyset). Ordem por id ou por prazo (sort=dueDays; as tarefas sem prazo vêm no fim).
      */
-    public Task updateTask(Long taskId, Task newData) {
-        Task existing = taskRepository.findByIdNative(taskId); // Agora usa Native Query
-        if (existing == null) {
-            throw new NotFoundException("Tarefa não encontrada para ID: " + taskId);
+    @Transactional(readOnly = true)
+    public CursorPage<Task> findPage(TaskFilter filter, String sort, String cursor, Integer size) {
+        int pageSize = ProjectService.resolvePageSize(size);
+        boolean byDueDays = resolveOrderByDueDays(sort);
+        if (filter.getDueDaysFrom() != null && filter.getDueDaysTo() != null
+                && filter.getDueDaysFrom() > filter.getDueDaysTo()) {
+            throw new BusinessException("O prazo mínimo não pode ser maior que o prazo máximo.");
         }
+        String title = filter.getTitle() == null || filter.getTitle().isBlank()
+                ? null
+                : filter.getTitle().trim().toLowerCase(Locale.ROOT);
+        TaskCriteria criteria = TaskCriteria.builder()
+                .projectId(filter.getProjectId())
+                .status(filter.getStatus())
+                .responsible(filter.getResponsible())
+                .dueDaysFrom(filter.getDueDaysFrom())
+                .dueDaysTo(filter.getDueDaysTo())
+                .title(title)
+                .orderByDueDays(byDueDays)
+                .build();
 
-        existing.setTitle(newData.getTitle());
-        existing.setDescription(newData.getDescription());
-        existing.setResponsible(newData.getResponsible());
-        existing.setDueDays(newData.getDueDays());
-        existing.setStatus(newData.getStatus());
+        PageCursor.Position after = byDueDays
+                ? PageCursor.decodePosition(cursor)
+                : new PageCursor.Position(null, PageCursor.decode(cursor));
+        // Busca um item a mais para saber se existe próxima página
+        List<Task> rows = taskRepository.findPage(criteria,
+                after != null ? after.key() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Task> items = rows.subList(0, pageSize);
+        Task last = items.get(pageSize - 1);
+        return new CursorPage<>(items, byDueDays
+                ? PageCursor.encode(last.getDueDays(), last.getId())
+                : PageCursor.encode(last.getId()));
+    }
 
-        validateTask(existing);
+    /**
+     * Atualizar tarefa com um único UPDATE condicional, sem ler a tarefa antes
+     * (a versão do projeto sobe no mesmo comando).
+     * Com expectedVersion (If-Match), falha se a tarefa já mudou desde aquela versão.
+     */
+    @Transactional
+    public Task updateTask(Long taskId, Task newData, Long expectedVersion) {
+        validateTask(newData);
         log.info("Atualizando tarefa ID: {}", taskId);
-        return taskRepository.save(existing);
+        Task task = taskRepository.updateReturningPrevious(taskId, newData, expectedVersion)
+                .orElseThrow(() -> notUpdated(taskId, expectedVersion));
+        TaskStatus previousStatus = task.getStatus();
+        TaskResponsible previousResponsible = task.getResponsible();
+
+        task.setTitle(newData.getTitle());
+        task.setDescription(newData.getDescription());
+        task.setResponsible(newData.getResponsible());
+        task.setDueDays(newData.getDueDays());
+        task.setStatus(newData.getStatus());
+        task.setVersion(task.getVersion() + 1);
+        Long projectId = task.getProject().getId();
+        publish(ChangeType.UPDATED, task, projectId, previousStatus, previousResponsible);
+        return task;
     }
 
 
     /**
      * Excluir tarefa.
      */
+    @Transactional
     public void deleteTask(Long taskId) {
         Task existing = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Tarefa não encontrada para ID: " + taskId));
         log.info("Excluindo tarefa ID: {}", taskId);
         taskRepository.delete(existing);
+        projectRepository.incrementVersion(existing.getProject().getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(ChangeType.DELETED, taskId, existing.getProject().getId(),
+                existing.getStatus(), existing.getResponsible(), null, null, existing.getVersion()));
     }
 
     /**
-     * Atualizar status via query nativa.
+     * Atualizar status com um único UPDATE condicional (só na versão expectedVersion, se informada),
+     * que também sobe a versão do projeto. O 404 vem do UPDATE não ter achado a linha.
      */
-    public Task updateStatus(Long taskId, TaskStatus status) {
-        Task existing = taskRepository.findById(taskId)
-                .orElseThrow(() -> new NotFoundException("Tarefa não encontrada para ID: " + taskId));
-
+    @Transactional
+    public Task updateStatus(Long taskId, TaskStatus status, Long expectedVersion) {
         if (status == null) {
             throw new BusinessException("Status inválido.");
         }
 
         log.info("Atualizando status da tarefa ID: {} para {}", taskId, status);
-        taskRepository.updateStatusNative(taskId, status.name());
-        existing.setStatus(status);
-        return existing;
+        Task task = taskRepository.updateStatusReturningPrevious(taskId, status, expectedVersion)
+                .orElseThrow(() -> notUpdated(taskId, expectedVersion));
+        TaskStatus previousStatus = task.getStatus();
+        task.setStatus(status);
+        task.setVersion(task.getVersion() + 1);
+        Long projectId = task.getProject().getId();
+        publish(ChangeType.STATUS_CHANGED, task, projectId, previousStatus, task.getResponsible());
+        return task;
+    }
+
+    /**
+     * Mudar o status de várias tarefas do projeto com um único UPDATE ... RETURNING (que também sobe
+     * a versão do projeto).
+     * As tarefas são escolhidas pelos ids e/ou pelo status atual; ao menos um dos dois é obrigatório.
+     * Se a seleção não pegar nenhuma tarefa do projeto (ou o projeto não existir), responde 404.
+     */
+    @Transactional
+    public List<Task> updateStatuses(Long projectId, List<Long> taskIds, TaskStatus currentStatus, TaskStatus status) {
+        if (status == null) {
+            throw new BusinessException("Status inválido.");
+        }
+        if ((taskIds == null || taskIds.isEmpty()) && currentStatus == null) {
+            throw new BusinessException("Informe os ids das tarefas ou o status atual para filtrar.");
+        }
+
+        log.info("Atualizando status das tarefas do projeto ID: {} para {}", projectId, status);
+        List<Long> ids = taskIds == null || taskIds.isEmpty() ? null : taskIds;
+        // Status de antes, com as linhas travadas até o commit; uma tarefa criada entre as duas
+        // queries só pode ter entrado pelo filtro de status atual
+        Map<Long, TaskStatus> previousStatuses = taskRepository.lockStatuses(projectId, ids, currentStatus);
+        List<Task> updated = taskRepository.updateStatusReturning(projectId, ids, currentStatus, status);
+        if (updated.isEmpty()) {
+            projectService.findById(projectId); // nada alterado: 404 do projeto, se ele não existe
+            throw new NotFoundException("Nenhuma tarefa do projeto " + projectId + " corresponde à seleção.");
+        }
+        updated.forEach(task -> publish(ChangeType.STATUS_CHANGED, task, projectId,
+                previousStatuses.getOrDefault(task.getId(), currentStatus), task.getResponsible()));
+        return updated;
+    }
+
+    /**
+     * Publica o evento com o status/responsável de antes (null na criação) e os de agora da tarefa.
+     */
+    private void publish(ChangeType type, Task task, Long projectId,
+                         TaskStatus previousStatus, TaskResponsible previousResponsible) {
+        eventPublisher.publishEvent(new TaskChangedEvent(type, task.getId(), projectId,
+                previousStatus, previousResponsible, task.getStatus(), task.getResponsible(), task.getVersion()));
     }
 
     /**
-     * Validar regras da tarefa (exemplo simples).
+     * Validar regras da tarefa (exemplo simples). Pública para a importação em lote usar as mesmas regras.
      */
-    private void validateTask(Task task) {
+    public void validateTask(Task task) {
         if (task.getDueDays() != null && task.getDueDays() < 0) {
             throw new BusinessException("O prazo (dueDays) não pode ser negativo.");
         }
     }
 
+    /**
+     * Por que o UPDATE condicional não alterou nada. Só com If-Match a tarefa pode existir
+     * (em outra versão); só nesse caso há uma consulta a mais.
+     */
+    /**
+     * O projeto (sem as tarefas) a que as tarefas novas pertencem, lido na própria transação:
+     * o do cache é uma cópia compartilhada, que não pode virar o task.project.
+     */
+    private Project findProject(Long projectId) {
+        return projectRepository.findById(projectId)
+                .orElseThrow(() -> new NotFoundException("Projeto não encontrado para o ID: " + projectId));
+    }
+
+    private RuntimeException notUpdated(Long taskId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsById(taskId)) {
+            return new VersionConflictException("A tarefa " + taskId + " não está na versão " + expectedVersion + ".");
+        }
+        return new NotFoundException("Tarefa não encontrada para ID: " + taskId);
+    }
+
+    private static boolean resolveOrderByDueDays(String sort) {
+        if (sort == null || sort.isBlank() || SORT_BY_ID.equals(sort)) {
+            return false;
+        }
+        if (SORT_BY_DUE_DAYS.equals(sort)) {
+            return true;
+        }
+        throw new BusinessException("Ordenação inválida: " + sort + ". Use " + SORT_BY_ID + " ou " + SORT_BY_DUE_DAYS + ".");
+    }
+
     public Task updateTaskStatus(Long taskId, TaskStatus taskStatus) {
         throw new BusinessException("n era para está aqui.");
     }
@@ -0,0 +1,286 @@
+package secretaria.servidor.service.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import secretaria.servidor.config.ExecutorConfig;
+import secretaria.servidor.dto.ChangeEventDTO;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.event.TasksCreatedEvent;
+import secretaria.servidor.event.TasksDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed de alterações do GET /api/events (Server-Sent Events).
+ *
+ * Ouve os mesmos eventos de escrita do ProjectService/TaskService, só depois do commit, e
+ * repassa a todos os assinantes um resumo (entidade, tipo, id, versão e status). Cada evento
+ * é serializado uma vez só; a distribuição roda numa thread própria, então a thread que fez
+ * a escrita só enfileira. Cada assinante tem uma fila limitada, esvaziada por uma tarefa no
+ * executor do feed apenas enquanto tem algo pendente: nenhuma thread fica presa por conexão
+ * aberta, e um cliente lento atrasa só a própria fila. Se o executor recusar a tarefa, o
+ * assinante é desconectado (e reconecta).
+ *
+ * Quem não acompanha (fila cheia) recebe um evento "resync" e é desconectado; o EventSource
+ * reconecta sozinho e o cliente recarrega as listas. Eventos de quando o cliente estava
+ * desconectado não são reenviados, então a cada (re)conexão o cliente deve recarregar o que exibe.
+ */
+@Slf4j
+@Component
+public class ChangeFeed implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+    private static final Set<DataWithMediaType> RESYNC = SseEmitter.event().name("resync").data("").build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.FEED)
+    private TaskExecutor taskExecutor;
+
+    /**
+     * Eventos pendentes por assinante antes de ele ser desconectado.
+     */
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    /**
+     * Comentário periódico para proxies não fecharem a conexão ociosa e para detectar clientes que já saíram.
+     */
+    @Value("${app.events.heartbeat:15s}")
+    private Duration heartbeat;
+
+    /**
+     * Tempo máximo de uma conexão; depois dele o EventSource reconecta.
+     */
+    @Value("${app.events.timeout:30m}")
+    private Duration timeout;
+
+    /**
+     * Intervalo de reconexão sugerido ao cliente (campo retry do SSE).
+     */
+    @Value("${app.events.retry:3s}")
+    private Duration retry;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long period = heartbeat.toMillis();
+        dispatcher.scheduleAtFixedRate(() -> fanOut(HEARTBEAT), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Abre uma assinatura. A primeira mensagem só informa o intervalo de reconexão.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.enqueue(SseEmitter.event().reconnectTime(retry.toMillis()).comment("conectado").build());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        publish(ChangeEventDTO.builder()
+                .entity("project")
+                .type(typeName(event.getType()))
+                .id(event.getProjectId())
+                .version(event.getVersion())
+                .status(event.getStatus() != null ? event.getStatus().name() : null)
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        publish(ChangeEventDTO.builder()
+                .entity("task")
+                .type(typeName(event.getType()))
+                .id(event.getTaskId())
+                .projectId(event.getProjectId())
+                .version(event.getVersion())
+                .status(event.getStatus() != null ? event.getStatus().name() : null)
+                .build());
+    }
+
+    /**
+     * Criação em lote: um único evento com a quantidade, em vez de um por tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksCreated(TasksCreatedEvent event) {
+        publish(ChangeEventDTO.builder()
+                .entity("task")
+                .type(typeName(ChangeType.CREATED))
+                .projectId(event.getProjectId())
+                .count(event.getTotal())
+                .build());
+    }
+
+    /**
+     * Exclusão em conjunto: um único evento com a quantidade, em vez de um por tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksDeleted(TasksDeletedEvent event) {
+        publish(ChangeEventDTO.builder()
+                .entity("task")
+                .type(typeName(ChangeType.DELETED))
+                .projectId(event.getProjectId())
+                .count(event.getTotal())
+                .build());
+    }
+
+    private void publish(ChangeEventDTO change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .id(Long.toString(sequence.incrementAndGet()))
+                    .data(objectMapper.writeValueAsString(change))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Evento de alteração não serializado: {} {} {}", change.getEntity(), change.getType(), change.getId(), e);
+            return;
+        }
+        dispatcher.execute(() -> fanOut(frame));
+    }
+
+    private void fanOut(Set<DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(frame);
+        }
+    }
+
+    private static String typeName(ChangeType type) {
+        return switch (type) {
+            case CREATED -> "created";
+            case UPDATED -> "updated";
+            case STATUS_CHANGED -> "statusChanged";
+            case DELETED -> "deleted";
+        };
+    }
+
+    /**
+     * Uma conexão aberta: fila de mensagens e no máximo uma tarefa de envio em andamento.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> pending;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closing;
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void enqueue(Set<DataWithMediaType> frame) {
+            if (closing) {
+                return;
+            }
+            if (!pending.offer(frame)) {
+                log.info("Assinante de /api/events desconectado: {} eventos pendentes sem envio", pending.size());
+                subscribers.remove(this);
+                pending.clear();
+                pending.offer(RESYNC);
+                closing = true;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                taskExecutor.execute(this::send);
+            } catch (TaskRejectedException e) {
+                sending.set(false);
+                subscribers.remove(this);
+                closing = true;
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void send() {
+            try {
+                sendPending();
+                if (closing) {
+                    // O RESYNC pode ter entrado depois da última leitura da fila
+                    sendPending();
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente já saiu (ou a conexão já foi encerrada)
+                subscribers.remove(this);
+                closing = true;
+                pending.clear();
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (!pending.isEmpty()) {
+                scheduleSend();
+            }
+        }
+
+        private void sendPending() throws IOException {
+            Set<DataWithMediaType> frame;
+            while ((frame = pending.poll()) != null) {
+                emitter.send(frame);
+            }
+        }
+    }
+}
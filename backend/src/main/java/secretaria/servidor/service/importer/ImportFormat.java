@@ -0,0 +1,39 @@
+package secretaria.servidor.service.importer;
+
+import secretaria.servidor.exception.BusinessException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos aceitos na importação, pelo Content-Type do corpo.
+ * CSV: uma linha por tarefa, com as colunas do projeto repetidas (linhas seguidas com o mesmo
+ * project_name formam um projeto). NDJSON: um projeto por linha, no mesmo formato da exportação.
+ */
+public enum ImportFormat {
+
+    CSV(MediaType.parseMediaType(ImportFormat.CSV_VALUE), ".csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, ".ndjson");
+
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ImportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ImportFormat of(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (ImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new BusinessException("Formato de importação não suportado: " + contentType);
+    }
+}
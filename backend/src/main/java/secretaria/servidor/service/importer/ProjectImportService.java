@@ -0,0 +1,556 @@
+package secretaria.servidor.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import secretaria.servidor.config.ExecutorConfig;
+import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.dto.TaskDTO;
+import secretaria.servidor.dto.mapper.ProjectMapper;
+import secretaria.servidor.dto.mapper.TaskMapper;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TasksCreatedEvent;
+import secretaria.servidor.exception.BusinessException;
+import secretaria.servidor.exception.PayloadTooLargeException;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.repository.projection.TaskCount;
+import secretaria.servidor.service.ProjectService;
+import secretaria.servidor.service.TaskService;
+import secretaria.servidor.service.job.Job;
+import secretaria.servidor.service.job.JobRegistry;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de projetos e tarefas a partir de CSV ou NDJSON.
+ * O corpo (até app.import.max-size) é copiado para um arquivo temporário e lido em streaming numa
+ * thread em segundo plano;
+ * cada linha é validada com as mesmas regras dos endpoints (Bean Validation dos DTOs,
+ * validateProjectDates/validateStatus/validateTask) e as linhas válidas são gravadas em
+ * transações de até {@link #CHUNK_ROWS} projetos e tarefas, com INSERTs em lote (no CSV, um
+ * projeto com mais linhas que isso sai em partes; no NDJSON, a linha do projeto vai inteira). Linhas inválidas são puladas e registradas no job, junto
+ * com o progresso.
+ */
+@Slf4j
+@Service
+public class ProjectImportService {
+
+    public static final String JOB_TYPE = "project-import";
+
+    /**
+     * Projetos + tarefas por transação; múltiplo do hibernate.jdbc.batch_size.
+     */
+    private static final int CHUNK_ROWS = 1_000;
+
+    @Value("${app.import.max-size:100MB}")
+    private DataSize maxSize;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.JOBS)
+    private TaskExecutor taskExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Grava o corpo em disco e agenda a importação. Retorna o job para acompanhamento.
+     * Um corpo maior que app.import.max-size para de ser lido no limite e a requisição recebe 413.
+     * Sem vaga no executor de jobs, apaga o arquivo, marca o job como falho e a requisição recebe 503.
+     */
+    public Job start(InputStream body, ImportFormat format) throws IOException {
+        Path file = Files.createTempFile("project-import-", format.getExtension());
+        try {
+            Files.copy(limited(body, maxSize.toBytes()), file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = jobRegistry.create(JOB_TYPE);
+        job.set("bytesTotal", Files.size(file));
+        log.info("Importação {} recebida: {} ({} bytes)", job.getId(), format, Files.size(file));
+        try {
+            taskExecutor.execute(() -> run(job, file, format));
+        } catch (TaskRejectedException e) {
+            log.warn("Importação {} recusada: executor de jobs cheio", job.getId());
+            job.fail("Executor de jobs cheio");
+            deleteTempFile(file);
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(Job job, Path file, ImportFormat format) {
+        job.start();
+        ChunkWriter writer = new ChunkWriter(job);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(countingBytes(Files.newInputStream(file), job), StandardCharsets.UTF_8))) {
+            if (format == ImportFormat.CSV) {
+                readCsv(reader, job, writer);
+            } else {
+                readNdjson(reader, job, writer);
+            }
+            writer.flush();
+            job.complete();
+            log.info("Importação {} concluída: {}", job.getId(), job.counterValues());
+        } catch (Exception e) {
+            log.error("Importação {} interrompida", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            deleteTempFile(file);
+        }
+    }
+
+    private static void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário {}", file, e);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Job job, ChunkWriter writer) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            job.add("rowsRead", 1);
+            try {
+                ProjectDTO dto = objectMapper.readValue(line, ProjectDTO.class);
+                Project project = toProject(dto);
+                List<TaskDTO> tasks = dto.getTasks() == null ? List.of() : dto.getTasks();
+                for (int i = 0; i < tasks.size(); i++) {
+                    try {
+                        addTask(project, tasks.get(i));
+                    } catch (BusinessException e) {
+                        throw new BusinessException("tarefa " + (i + 1) + ": " + e.getMessage());
+                    }
+                }
+                writer.add(project, true, row, row, 1);
+            } catch (JsonProcessingException e) {
+                rowFailed(job, row, "JSON inválido: " + e.getOriginalMessage());
+            } catch (BusinessException e) {
+                rowFailed(job, row, e.getMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Job job, ChunkWriter writer) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = new CsvMapper()
+                .readerForMapOf(String.class)
+                .with(schema)
+                .readValues(reader)) {
+            long row = 1; // linha 1 é o cabeçalho
+            CsvGroup group = null;
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                row++;
+                job.add("rowsRead", 1);
+
+                String name = text(values, "project_name");
+                if (group == null || !Objects.equals(group.name, name)) {
+                    if (group != null) {
+                        group.finish(writer);
+                    }
+                    group = new CsvGroup(job, name, row, values);
+                }
+                group.addRow(row, values, writer);
+            }
+            if (group != null) {
+                group.finish(writer);
+            }
+        }
+    }
+
+    /**
+     * Linhas seguidas do CSV com o mesmo project_name: um projeto e suas tarefas.
+     * Os campos do projeto vêm da primeira linha do grupo. A cada {@link #CHUNK_ROWS} linhas
+     * o que já foi lido vai para o ChunkWriter (na primeira parte, junto com o projeto), então
+     * um projeto com muitas tarefas não fica inteiro em memória.
+     */
+    private final class CsvGroup {
+
+        private final Job job;
+        private final String name;
+        private long firstRow;
+        private long lastRow;
+        private int importedRows;
+        private int failedRows;
+        private boolean handedOff;
+        private Project project;
+
+        CsvGroup(Job job, String name, long row, Map<String, String> values) {
+            this.job = job;
+            this.name = name;
+            this.firstRow = row;
+            try {
+                project = toProject(ProjectDTO.builder()
+                        .name(name)
+                        .description(text(values, "project_description"))
+                        .startDate(date(values, "start_date"))
+                        .endDate(date(values, "end_date"))
+                        .teamResponsible(text(values, "team_responsible"))
+                        .status(enumValue(ProjectStatus.class, values, "project_status"))
+                        .build());
+            } catch (BusinessException e) {
+                job.addError(row, e.getMessage());
+            }
+        }
+
+        void addRow(long row, Map<String, String> values, ChunkWriter writer) {
+            lastRow = row;
+            if (project == null) {
+                failedRows++;
+                return;
+            }
+            if (text(values, "task_title") == null && text(values, "task_status") == null) {
+                importedRows++; // linha só com o projeto
+                return;
+            }
+            try {
+                addTask(project, TaskDTO.builder()
+                        .title(text(values, "task_title"))
+                        .description(text(values, "task_description"))
+                        .responsible(enumValue(TaskResponsible.class, values, "task_responsible"))
+                        .dueDays(integer(values, "task_due_days"))
+                        .status(enumValue(TaskStatus.class, values, "task_status"))
+                        .build());
+                importedRows++;
+            } catch (BusinessException e) {
+                rowFailed(job, row, e.getMessage());
+            }
+            if (importedRows >= CHUNK_ROWS) {
+                handOff(writer);
+            }
+        }
+
+        void finish(ChunkWriter writer) {
+            if (project == null) {
+                job.add("rowsFailed", failedRows);
+            } else if (!handedOff || importedRows > 0) {
+                handOff(writer);
+            }
+        }
+
+        private void handOff(ChunkWriter writer) {
+            writer.add(project, !handedOff, firstRow, lastRow, importedRows);
+            handedOff = true;
+            importedRows = 0;
+            firstRow = lastRow + 1;
+        }
+    }
+
+    /**
+     * Uma parte a gravar: o projeto com as primeiras tarefas (withProject) ou mais tarefas de
+     * um projeto entregue numa parte anterior.
+     */
+    private record Part(Project project, boolean withProject, List<Task> tasks, long firstRow, long lastRow, int rows) {
+    }
+
+    /**
+     * Acumula as partes válidas e grava cada bloco numa transação própria: os INSERTs saem em
+     * lote, o contexto de persistência é limpo e os eventos de criação (índice de busca,
+     * caches) são publicados para depois do commit. Se o bloco falhar no banco, as partes dele
+     * são gravadas de novo uma a uma: as boas entram e só as que falharem ficam como erro,
+     * com as suas linhas.
+     */
+    private final class ChunkWriter {
+
+        private final Job job;
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        private final List<Part> parts = new ArrayList<>();
+        private int entities;
+
+        ChunkWriter(Job job) {
+            this.job = job;
+        }
+
+        /**
+         * Entrega o projeto (withProject) ou só as tarefas acumuladas nele, que saem da lista
+         * do projeto para as próximas partes não as gravarem de novo.
+         */
+        void add(Project project, boolean withProject, long firstRow, long lastRow, int rowCount) {
+            if (!withProject && project.getId() == null && parts.stream().noneMatch(part -> part.project() == project)) {
+                // O projeto ficou de fora num bloco anterior
+                job.addError(firstRow, "Falha ao gravar as linhas " + firstRow + " a " + lastRow
+                        + ": o projeto não foi gravado");
+                job.add("rowsFailed", rowCount);
+                project.getTasks().clear();
+                return;
+            }
+            Part part = new Part(project, withProject, new ArrayList<>(project.getTasks()), firstRow, lastRow, rowCount);
+            parts.add(part);
+            project.getTasks().clear();
+            // O bloco é medido pelo que vai ao banco: uma linha NDJSON traz o projeto e todas as tarefas dele
+            entities += (withProject ? 1 : 0) + part.tasks().size();
+            if (entities >= CHUNK_ROWS) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (parts.isEmpty()) {
+                return;
+            }
+            try {
+                write(parts);
+            } catch (RuntimeException e) {
+                log.warn("Importação {}: falha ao gravar as linhas {} a {}, gravando parte a parte",
+                        job.getId(), parts.get(0).firstRow(), parts.get(parts.size() - 1).lastRow(), e);
+                parts.forEach(ChunkWriter::reset);
+                for (Part part : parts) {
+                    try {
+                        write(List.of(part));
+                    } catch (RuntimeException partFailure) {
+                        reset(part);
+                        job.addError(part.firstRow(), "Falha ao gravar as linhas " + part.firstRow() + " a "
+                                + part.lastRow() + ": " + partFailure.getMessage());
+                        job.add("rowsFailed", part.rows());
+                    }
+                }
+            }
+            parts.clear();
+            entities = 0;
+        }
+
+        private void write(List<Part> chunk) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Part part : chunk) {
+                    if (part.withProject()) {
+                        projectRepository.save(part.project());
+                    } else if (part.project().getId() == null) {
+                        throw new BusinessException("o projeto não foi gravado");
+                    }
+                    taskRepository.saveAll(part.tasks());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                chunk.forEach(this::publishCreated);
+            });
+            for (Part part : chunk) {
+                if (part.withProject()) {
+                    job.add("projectsImported", 1);
+                }
+                job.add("tasksImported", part.tasks().size());
+            }
+        }
+
+        private void publishCreated(Part part) {
+            Project project = part.project();
+            if (part.withProject()) {
+                eventPublisher.publishEvent(new ProjectChangedEvent(
+                        ChangeType.CREATED, project.getId(), project.getName(), null, project.getStatus(), project.getVersion()));
+            }
+            if (!part.tasks().isEmpty()) {
+                eventPublisher.publishEvent(new TasksCreatedEvent(project.getId(), TaskCount.of(part.tasks())));
+            }
+        }
+
+        /**
+         * Desfaz o id e a versão atribuídos no INSERT que voltou atrás, para a parte poder ser
+         * gravada de novo como nova (e as partes seguintes do projeto saberem que ele não entrou).
+         */
+        private static void reset(Part part) {
+            if (part.withProject()) {
+                part.project().setId(null);
+                part.project().setVersion(null);
+            }
+            part.tasks().forEach(task -> {
+                task.setId(null);
+                task.setVersion(null);
+            });
+        }
+    }
+
+    private Project toProject(ProjectDTO dto) {
+        validate(dto);
+        Project project = ProjectMapper.toEntity(dto);
+        project.setId(null);
+        projectService.validateProjectDates(project);
+        projectService.validateStatus(project.getStatus());
+        return project;
+    }
+
+    private void addTask(Project project, TaskDTO dto) {
+        validate(dto);
+        Task task = TaskMapper.toEntity(dto);
+        task.setId(null);
+        taskService.validateTask(task);
+        task.setProject(project);
+        project.getTasks().add(task);
+    }
+
+    private <T> void validate(T dto) {
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BusinessException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static void rowFailed(Job job, long row, String message) {
+        job.addError(row, message);
+        job.add("rowsFailed", 1);
+    }
+
+    private static String text(Map<String, String> values, String column) {
+        String value = values.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static LocalDate date(Map<String, String> values, String column) {
+        String value = text(values, column);
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Data inválida em " + column + ": " + value + " (use AAAA-MM-DD).");
+        }
+    }
+
+    private static Integer integer(Map<String, String> values, String column) {
+        String value = text(values, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Número inválido em " + column + ": " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, Map<String, String> values, String column) {
+        String value = text(values, column);
+        try {
+            return value == null ? null : Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Valor inválido em " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Lê até maxBytes do corpo; passado isso, para com {@link PayloadTooLargeException} (413).
+     */
+    private static InputStream limited(InputStream in, long maxBytes) {
+        return new FilterInputStream(in) {
+            private long count;
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    counted(1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    counted(read);
+                }
+                return read;
+            }
+
+            private void counted(int bytes) {
+                count += bytes;
+                if (count > maxBytes) {
+                    throw new PayloadTooLargeException("Arquivo de importação maior que o limite de " + maxBytes + " bytes.");
+                }
+            }
+        };
+    }
+
+    private static InputStream countingBytes(InputStream in, Job job) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    job.add("bytesRead", 1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    job.add("bytesRead", read);
+                }
+                return read;
+            }
+        };
+    }
+}
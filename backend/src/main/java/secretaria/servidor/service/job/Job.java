@@ -0,0 +1,95 @@
+package secretaria.servidor.service.job;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tarefa em segundo plano (importação, exclusão em lote...) acompanhada via GET /api/jobs/{id}.
+ * Atualizada pela thread que executa e lida pelas requisições de acompanhamento, por isso
+ * os campos são voláteis/atômicos. Guarda só os primeiros {@link #MAX_ERRORS} erros.
+ */
+@Getter
+public class Job {
+
+    public static final int MAX_ERRORS = 1_000;
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Um erro de uma linha/item específico (linha 0 = erro geral).
+     */
+    public record ItemError(long row, String message) {
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    private final Map<String, AtomicLong> counters = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicLong errorCount = new AtomicLong();
+    private final List<ItemError> errors = Collections.synchronizedList(new ArrayList<>());
+
+    public Job(String type) {
+        this.type = type;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        failure = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void add(String counter, long delta) {
+        counters.computeIfAbsent(counter, name -> new AtomicLong()).addAndGet(delta);
+    }
+
+    public void set(String counter, long value) {
+        counters.computeIfAbsent(counter, name -> new AtomicLong()).set(value);
+    }
+
+    public void addError(long row, String message) {
+        if (errorCount.incrementAndGet() <= MAX_ERRORS) {
+            errors.add(new ItemError(row, message));
+        }
+    }
+
+    public Map<String, Long> counterValues() {
+        synchronized (counters) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            counters.forEach((name, value) -> values.put(name, value.get()));
+            return values;
+        }
+    }
+
+    public List<ItemError> errorList() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
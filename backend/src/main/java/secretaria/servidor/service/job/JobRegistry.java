@@ -0,0 +1,36 @@
+package secretaria.servidor.service.job;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Jobs em memória desta instância. Mantém no máximo {@link #MAX_JOBS}: quando passa do limite,
+ * descarta os concluídos mais antigos.
+ */
+@Component
+public class JobRegistry {
+
+    private static final int MAX_JOBS = 100;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public synchronized Job create(String type) {
+        Job job = new Job(type);
+        jobs.put(job.getId(), job);
+        Iterator<Job> oldest = jobs.values().iterator();
+        while (jobs.size() > MAX_JOBS && oldest.hasNext()) {
+            if (oldest.next().isFinished()) {
+                oldest.remove();
+            }
+        }
+        return job;
+    }
+
+    public synchronized Optional<Job> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+}
@@ -0,0 +1,246 @@
+package secretaria.servidor.service.search;
+
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.projection.ProjectName;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre o nome normalizado dos projetos, em memória.
+ *
+ * Substitui o LOWER(name) LIKE '%x%' (que sempre varre a tabela inteira): a busca
+ * intersecta as listas de ids dos trigramas da consulta (Roaring64Bitmap, ids de 64 bits) e só confere
+ * o texto dos candidatos. O nome é indexado com marcadores de início e fim, então os
+ * trigramas também respondem "igual a" e "começa com" sem olhar os demais candidatos.
+ *
+ * O índice é carregado na subida da aplicação e mantido pelos eventos de escrita do
+ * ProjectService. Cada instância da aplicação mantém o seu.
+ */
+@Slf4j
+@Component
+public class ProjectSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock: nome normalizado por id e ids por trigrama
+    private Names names = new Names();
+    private Map<String, Roaring64Bitmap> postings = new HashMap<>();
+
+    // Escritas que chegam durante a reconstrução são reaplicadas no índice novo
+    private List<ProjectChangedEvent> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    /**
+     * Indica se o índice já foi carregado (antes disso o service usa a busca no banco).
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Recarrega o índice inteiro a partir do banco.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Names newNames = new Names();
+        Map<String, Roaring64Bitmap> newPostings = new HashMap<>();
+        try (Stream<ProjectName> rows = projectRepository.streamAllNames()) {
+            rows.forEach(row -> add(newNames, newPostings, row.getId(), row.getName()));
+        }
+        newPostings.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            names = newNames;
+            postings = newPostings;
+            pendingDuringRebuild.forEach(this::apply);
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de busca de projetos carregado: {} projetos, {} trigramas", newNames.size(), newPostings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids dos projetos cujo nome contém o texto (sem acento/caixa), do mais ao menos
+     * relevante: nome igual, começa com o texto, alguma palavra começa com o texto, contém.
+     * Dentro de cada faixa a ordem é por id. Para assim que junta {@code limit} resultados.
+     */
+    public List<Long> search(String query, int limit) {
+        String term = TextNormalizer.normalize(query);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> hits = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            collect(hits, limit, START + term + END, name -> name.equals(term));
+            collect(hits, limit, START + term, name -> name.startsWith(term));
+            collect(hits, limit, " " + term, name -> name.contains(" " + term));
+            collect(hits, limit, term, name -> name.contains(term));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return List.copyOf(hits);
+    }
+
+    /**
+     * Acrescenta a {@code hits}, em ordem de id, os candidatos do padrão que passam na conferência.
+     */
+    private void collect(Set<Long> hits, int limit, String pattern, Predicate<String> matches) {
+        if (hits.size() >= limit) {
+            return;
+        }
+        LongIterator candidates = pattern.length() < GRAM
+                ? names.ids()                       // sem trigrama (consulta de 1 letra): confere todos
+                : candidates(pattern).getLongIterator();
+        while (candidates.hasNext() && hits.size() < limit) {
+            long id = candidates.next();
+            String name = names.get(id);
+            if (name != null && !hits.contains(id) && matches.test(name)) {
+                hits.add(id);
+            }
+        }
+    }
+
+    private Roaring64Bitmap candidates(String pattern) {
+        List<Roaring64Bitmap> lists = new ArrayList<>();
+        for (String gram : grams(pattern)) {
+            Roaring64Bitmap ids = postings.get(gram);
+            if (ids == null) {
+                return new Roaring64Bitmap();
+            }
+            lists.add(ids);
+        }
+        // Começa pela lista mais curta para a interseção encolher rápido
+        lists.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+        Roaring64Bitmap result = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    private void apply(ProjectChangedEvent event) {
+        long id = event.getProjectId();
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                remove(names, postings, id);
+                add(names, postings, id, event.getName());
+            }
+            case DELETED -> remove(names, postings, id);
+            default -> {
+                // mudança de status não altera o nome
+            }
+        }
+    }
+
+    private static void add(Names names, Map<String, Roaring64Bitmap> postings, long id, String name) {
+        String normalized = TextNormalizer.normalize(name);
+        names.put(id, normalized);
+        for (String gram : grams(START + normalized + END)) {
+            postings.computeIfAbsent(gram, g -> new Roaring64Bitmap()).addLong(id);
+        }
+    }
+
+    private static void remove(Names names, Map<String, Roaring64Bitmap> postings, long id) {
+        String previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(START + previous + END)) {
+            Roaring64Bitmap ids = postings.get(gram);
+            if (ids != null) {
+                ids.removeLong(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Nomes indexados por id, com os ids também num bitmap para percorrê-los em ordem.
+     */
+    private static final class Names {
+
+        private final Map<Long, String> byId = new HashMap<>();
+        private final Roaring64Bitmap ids = new Roaring64Bitmap();
+
+        String get(long id) {
+            return byId.get(id);
+        }
+
+        void put(long id, String name) {
+            byId.put(id, name);
+            ids.addLong(id);
+        }
+
+        String remove(long id) {
+            String previous = byId.remove(id);
+            if (previous != null) {
+                ids.removeLong(id);
+            }
+            return previous;
+        }
+
+        LongIterator ids() {
+            return ids.getLongIterator();
+        }
+
+        int size() {
+            return byId.size();
+        }
+    }
+}
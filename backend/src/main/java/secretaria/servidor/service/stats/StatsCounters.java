@@ -0,0 +1,183 @@
+package secretaria.servidor.service.stats;
+
+import secretaria.servidor.dto.StatsDTO;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.event.TasksCreatedEvent;
+import secretaria.servidor.event.TasksDeletedEvent;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores do painel em memória: projetos por status e tarefas por status × responsável.
+ *
+ * São carregados com um GROUP BY na subida (antes do servidor web aceitar requisições)
+ * e depois mantidos pelos eventos de escrita do ProjectService/TaskService, que trazem
+ * o status/responsável de antes e de depois: cada escrita só decrementa uma célula e
+ * incrementa outra, e o GET /api/stats não lê o banco.
+ *
+ * Cada instância da aplicação mantém os seus; escritas feitas direto no banco (fora dos
+ * services) só aparecem depois de um {@link #rebuild()}.
+ */
+@Slf4j
+@Component
+public class StatsCounters implements SmartInitializingSingleton {
+
+    static final String NO_STATUS = "SEM_STATUS";
+    static final String NO_RESPONSIBLE = "SEM_RESPONSAVEL";
+
+    private static final ProjectStatus[] PROJECT_STATUSES = ProjectStatus.values();
+    private static final TaskStatus[] TASK_STATUSES = TaskStatus.values();
+    private static final TaskResponsible[] RESPONSIBLES = TaskResponsible.values();
+
+    // Uma posição a mais em cada dimensão para os valores nulos
+    private static final int TASK_COLUMNS = RESPONSIBLES.length + 1;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private volatile Counters counters = new Counters();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Recarrega os contadores a partir do banco.
+     * Só é exato sem escritas concorrentes (na subida, ou depois de carregar dados direto no banco).
+     */
+    public void rebuild() {
+        Counters fresh = new Counters();
+        projectRepository.countByStatus()
+                .forEach(row -> fresh.projects.addAndGet(index(row.getStatus()), row.getTotal()));
+        taskRepository.countByStatusAndResponsible()
+                .forEach(row -> fresh.tasks.addAndGet(index(row.getStatus(), row.getResponsible()), row.getTotal()));
+        counters = fresh;
+        log.info("Contadores do painel carregados");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        AtomicLongArray projects = counters.projects;
+        switch (event.getType()) {
+            case CREATED -> projects.incrementAndGet(index(event.getStatus()));
+            case DELETED -> projects.decrementAndGet(index(event.getPreviousStatus()));
+            default -> {
+                if (event.getPreviousStatus() != event.getStatus()) {
+                    projects.decrementAndGet(index(event.getPreviousStatus()));
+                    projects.incrementAndGet(index(event.getStatus()));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        AtomicLongArray tasks = counters.tasks;
+        switch (event.getType()) {
+            case CREATED -> tasks.incrementAndGet(index(event.getStatus(), event.getResponsible()));
+            case DELETED -> tasks.decrementAndGet(index(event.getPreviousStatus(), event.getPreviousResponsible()));
+            default -> {
+                int previous = index(event.getPreviousStatus(), event.getPreviousResponsible());
+                int current = index(event.getStatus(), event.getResponsible());
+                if (previous != current) {
+                    tasks.decrementAndGet(previous);
+                    tasks.incrementAndGet(current);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksCreated(TasksCreatedEvent event) {
+        AtomicLongArray tasks = counters.tasks;
+        event.getCounts().forEach(count ->
+                tasks.addAndGet(index(count.getStatus(), count.getResponsible()), count.getTotal()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksDeleted(TasksDeletedEvent event) {
+        AtomicLongArray tasks = counters.tasks;
+        event.getCounts().forEach(count ->
+                tasks.addAndGet(index(count.getStatus(), count.getResponsible()), -count.getTotal()));
+    }
+
+    /**
+     * Retrato dos contadores. Os nulos só aparecem quando existem.
+     */
+    public StatsDTO snapshot() {
+        Counters current = counters;
+
+        Map<String, Long> projectsByStatus = new LinkedHashMap<>();
+        long totalProjects = 0;
+        for (int i = 0; i <= PROJECT_STATUSES.length; i++) {
+            long value = current.projects.get(i);
+            totalProjects += value;
+            if (i < PROJECT_STATUSES.length) {
+                projectsByStatus.put(PROJECT_STATUSES[i].name(), value);
+            } else if (value != 0) {
+                projectsByStatus.put(NO_STATUS, value);
+            }
+        }
+
+        Map<String, Map<String, Long>> tasksByStatus = new LinkedHashMap<>();
+        long totalTasks = 0;
+        for (int s = 0; s <= TASK_STATUSES.length; s++) {
+            Map<String, Long> byResponsible = new LinkedHashMap<>();
+            long rowTotal = 0;
+            for (int r = 0; r < TASK_COLUMNS; r++) {
+                long value = current.tasks.get(s * TASK_COLUMNS + r);
+                rowTotal += value;
+                if (r < RESPONSIBLES.length) {
+                    byResponsible.put(RESPONSIBLES[r].name(), value);
+                } else if (value != 0) {
+                    byResponsible.put(NO_RESPONSIBLE, value);
+                }
+            }
+            totalTasks += rowTotal;
+            if (s < TASK_STATUSES.length) {
+                tasksByStatus.put(TASK_STATUSES[s].name(), byResponsible);
+            } else if (rowTotal != 0) {
+                tasksByStatus.put(NO_STATUS, byResponsible);
+            }
+        }
+
+        return StatsDTO.builder()
+                .totalProjects(totalProjects)
+                .projectsByStatus(projectsByStatus)
+                .totalTasks(totalTasks)
+                .tasksByStatusAndResponsible(tasksByStatus)
+                .build();
+    }
+
+    private static int index(ProjectStatus status) {
+        return status == null ? PROJECT_STATUSES.length : status.ordinal();
+    }
+
+    private static int index(TaskStatus status, TaskResponsible responsible) {
+        int row = status == null ? TASK_STATUSES.length : status.ordinal();
+        int column = responsible == null ? RESPONSIBLES.length : responsible.ordinal();
+        return row * TASK_COLUMNS + column;
+    }
+
+    private static final class Counters {
+        private final AtomicLongArray projects = new AtomicLongArray(PROJECT_STATUSES.length + 1);
+        private final AtomicLongArray tasks = new AtomicLongArray((TASK_STATUSES.length + 1) * TASK_COLUMNS);
+    }
+}
@@ -0,0 +1,30 @@
+-- Schema inicial para bancos novos, casado com as entidades (ddl-auto=validate nos testes).
+-- Bancos que já existiam entram com baseline na versão 1 (spring.flyway.baseline-on-migrate) sem
+-- rodar este script, e o schema deles é diferente (ids SERIAL/IDENTITY, sem version, sequences de
+-- 1 em 1): a V6 (db/migration/postgresql) acerta essas diferenças.
+
+-- Ids em blocos de 50 (allocationSize das entidades), para os INSERTs em lote
+CREATE SEQUENCE project_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE task_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE project (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    description      TEXT,
+    start_date       DATE,
+    end_date         DATE,
+    team_responsible VARCHAR(255),
+    status           VARCHAR(50)  NOT NULL,  -- PLANEJADO, EM_EXECUCAO, ABORTADO, FINALIZADO
+    version          BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE task (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    responsible VARCHAR(50),                 -- PLO, GFU, CTB, GBP
+    due_days    INTEGER,
+    status      VARCHAR(50)  NOT NULL,       -- PLANEJADO, EM_EXECUCAO, ABORTADO, FINALIZADO
+    version     BIGINT       NOT NULL DEFAULT 0,
+    project_id  BIGINT       REFERENCES project (id) ON DELETE CASCADE
+);
@@ -0,0 +1,13 @@
+-- Índices casados com as consultas dos repositórios (conferidos pelo RepositoryQueryPlanTest).
+
+-- Tarefas de um projeto: findAllByProjectId, a carga em lote das tarefas (project_id IN (...)),
+-- a exclusão em cascata e a mudança de status em lote filtrada pelo status atual.
+-- O PostgreSQL não cria índice para chave estrangeira sozinho.
+CREATE INDEX idx_task_project_status ON task (project_id, status);
+
+-- Tarefas por status: findAllByStatus
+CREATE INDEX idx_task_status ON task (status);
+
+-- Projetos por status: findByStatus, findSummariesByStatus, findAllFinishedProjects e a listagem
+-- paginada filtrada por status, que percorre o índice já na ordem do id (keyset)
+CREATE INDEX idx_project_status_id ON project (status, id);
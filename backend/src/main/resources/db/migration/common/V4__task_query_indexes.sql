@@ -0,0 +1,17 @@
+-- Índices compostos da consulta de tarefas em todos os projetos (GET /api/tasks, TaskRepositoryImpl.findPage),
+-- conferidos pelo RepositoryQueryPlanTest. Cada combinação de filtros por igualdade termina no id, então o
+-- banco percorre o índice já na ordem da paginação por keyset e para no tamanho da página, sem ordenar.
+
+-- Projeto (+ status): a consulta por projeto e as que já usavam (project_id, status)
+DROP INDEX idx_task_project_status;
+CREATE INDEX idx_task_project_status_id ON task (project_id, status, id);
+
+-- Status: findAllByStatus e a consulta só por status
+DROP INDEX idx_task_status;
+CREATE INDEX idx_task_status_id ON task (status, id);
+
+-- Responsável (+ status), em todos os projetos: "tarefas do CTB em execução"
+CREATE INDEX idx_task_responsible_status_id ON task (responsible, status, id);
+
+-- Faixa de prazo e a ordem por prazo (sort=dueDays), que pagina por (due_days, id)
+CREATE INDEX idx_task_due_days_id ON task (due_days, id);
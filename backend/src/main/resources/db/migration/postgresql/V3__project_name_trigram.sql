@@ -0,0 +1,5 @@
+-- Busca por trecho do nome (LOWER(name) LIKE '%termo%'), usada enquanto o índice de busca em
+-- memória não carregou. B-tree não atende LIKE com curinga no início; GIN de trigramas atende.
+-- pg_trgm é uma extensão "trusted" (PostgreSQL 13+): basta permissão de CREATE no banco.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_project_name_trgm ON project USING gin (lower(name) gin_trgm_ops);
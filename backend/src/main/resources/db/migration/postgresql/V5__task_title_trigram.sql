@@ -0,0 +1,3 @@
+-- Busca por trecho do título na consulta de tarefas (LOWER(title) LIKE '%termo%'), como a de
+-- projetos por nome (V3, que já criou a extensão pg_trgm).
+CREATE INDEX idx_task_title_trgm ON task USING gin (lower(title) gin_trgm_ops);
@@ -0,0 +1,51 @@
+-- Acerta os bancos que entraram com baseline na versão 1 (spring.flyway.baseline-on-migrate) sem
+-- rodar a V1: os criados pelo sql/create_tables.sql antigo (ids SERIAL INTEGER, team_responsible
+-- obrigatório) e os do ddl-auto=update (ids IDENTITY). Em nenhum deles havia as colunas version,
+-- e as sequences andavam de 1 em 1. Em um banco criado pela V1 cada comando abaixo não muda nada.
+
+-- Versão para o controle otimista (@Version)
+ALTER TABLE project ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+UPDATE project SET version = 0 WHERE version IS NULL;
+UPDATE task SET version = 0 WHERE version IS NULL;
+ALTER TABLE project ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+ALTER TABLE task ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+
+-- Ids: quem gera é o Hibernate (sequence com blocos de 50), não o banco
+ALTER TABLE project ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE project ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE task ALTER COLUMN id DROP DEFAULT;
+-- INTEGER do SERIAL para BIGINT; só onde ainda é INTEGER, já que a troca reescreve a tabela e os índices
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'project' AND column_name = 'id') <> 'bigint' THEN
+        ALTER TABLE project ALTER COLUMN id TYPE BIGINT;
+    END IF;
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'task' AND column_name = 'id') <> 'bigint' THEN
+        ALTER TABLE task ALTER COLUMN id TYPE BIGINT;
+    END IF;
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'task' AND column_name = 'project_id') <> 'bigint' THEN
+        ALTER TABLE task ALTER COLUMN project_id TYPE BIGINT;
+    END IF;
+END
+$$;
+
+-- Como na V1 e no ProjectDTO
+ALTER TABLE project ALTER COLUMN team_responsible TYPE VARCHAR(255), ALTER COLUMN team_responsible DROP NOT NULL;
+
+-- Sequences com INCREMENT 50 (allocationSize das entidades). O próximo valor fica pelo menos um
+-- bloco depois do maior id e do último valor entregue, então nenhum bloco já reservado se repete.
+CREATE SEQUENCE IF NOT EXISTS project_id_seq;
+CREATE SEQUENCE IF NOT EXISTS task_id_seq;
+ALTER SEQUENCE project_id_seq AS BIGINT INCREMENT BY 50 NO MAXVALUE;
+ALTER SEQUENCE task_id_seq AS BIGINT INCREMENT BY 50 NO MAXVALUE;
+SELECT setval('project_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM project), (SELECT last_value FROM project_id_seq)) + 50,
+              false);
+SELECT setval('task_id_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM task), (SELECT last_value FROM task_id_seq)) + 50,
+              false);
@@ -0,0 +1,7 @@
+-- A busca por nome no banco passou a ignorar acentos como o índice em memória: compara
+-- TRANSLATE(LOWER(name), ...) (ProjectRepository.NAME_MATCHES) com o termo normalizado. O GIN
+-- de trigramas da V3 era sobre LOWER(name) e deixou de atender; este é sobre a nova expressão,
+-- que precisa ser idêntica à da consulta.
+DROP INDEX IF EXISTS idx_project_name_trgm;
+CREATE INDEX idx_project_search_name_trgm ON project USING gin
+    (translate(lower(name), 'áàâãäåéèêëíìîïóòôõöúùûüçñý', 'aaaaaaeeeeiiiiooooouuuucny') gin_trgm_ops);
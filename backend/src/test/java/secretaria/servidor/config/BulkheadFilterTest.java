@@ -0,0 +1,103 @@
+package secretaria.servidor.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static secretaria.servidor.config.BulkheadFilter.Group.BULK;
+import static secretaria.servidor.config.BulkheadFilter.Group.READ;
+import static secretaria.servidor.config.BulkheadFilter.Group.WRITE;
+
+class BulkheadFilterTest {
+
+    private final Map<BulkheadFilter.Group, Bulkhead> bulkheads = Map.of(
+            BULK, new Bulkhead("bulk", 1, 1, 0, Duration.ZERO, 0),
+            READ, new Bulkhead("read", 1, 4, 0, Duration.ZERO, 0),
+            WRITE, new Bulkhead("write", 1, 4, 0, Duration.ZERO, 0));
+
+    private final BulkheadFilter filter = new BulkheadFilter(bulkheads, Duration.ofSeconds(2),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void groupsEndpointsByCost() {
+        assertThat(BulkheadFilter.groupOf("GET", "/api/projects")).isEqualTo(BULK);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/projects/summary/search")).isEqualTo(BULK);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/projects/export")).isEqualTo(BULK);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/tasks")).isEqualTo(BULK);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/projects/42")).isEqualTo(READ);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/projects/42/tasks")).isEqualTo(READ);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/stats")).isEqualTo(READ);
+        assertThat(BulkheadFilter.groupOf("PUT", "/api/projects/42")).isEqualTo(WRITE);
+        assertThat(BulkheadFilter.groupOf("POST", "/api/projects/import")).isEqualTo(WRITE);
+        assertThat(BulkheadFilter.groupOf("GET", "/api/events")).isNull();
+        assertThat(BulkheadFilter.groupOf("OPTIONS", "/api/projects")).isNull();
+        assertThat(BulkheadFilter.groupOf("GET", "/actuator/prometheus")).isNull();
+    }
+
+    @Test
+    void overloadedGroupIsRejectedWithoutBlockingTheOthers() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> slowList = CompletableFuture.supplyAsync(() ->
+                perform("GET", "/api/projects", (request, response) -> {
+                    inside.countDown();
+                    await(finish);
+                }));
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = perform("GET", "/api/projects/summary", (request, response) -> {
+            throw new AssertionError("não devia chegar ao controller");
+        });
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("bulk");
+
+        MockHttpServletResponse pointRead = perform("GET", "/api/projects/1", (request, response) -> { });
+        assertThat(pointRead.getStatus()).isEqualTo(200);
+
+        finish.countDown();
+        assertThat(slowList.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(bulkheads.get(BULK).getInFlight()).isZero();
+        assertThat(bulkheads.get(BULK).getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncResponseKeepsTheSlotUntilItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects/export");
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> request.startAsync());
+
+        assertThat(bulkheads.get(BULK).getInFlight()).isEqualTo(1);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(bulkheads.get(BULK).getInFlight()).isZero();
+    }
+
+    private MockHttpServletResponse perform(String method, String path, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
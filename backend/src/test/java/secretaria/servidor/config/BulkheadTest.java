@@ -0,0 +1,103 @@
+package secretaria.servidor.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void rejectsRightAwayWhenLimitAndQueueAreFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("bulk", 1, 1, 0, Duration.ofSeconds(1), 0);
+
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        long start = System.nanoTime();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+
+        bulkhead.release(FAST);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void queuedRequestTakesTheReleasedSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("write", 1, 1, 1, Duration.ofSeconds(5), 0);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (bulkhead.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        // Fila cheia: o próximo é recusado sem esperar
+        assertThat(bulkhead.tryAcquire()).isFalse();
+
+        bulkhead.release(FAST);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.getInFlight()).isEqualTo(1);
+        assertThat(bulkhead.getWaited()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("read", 1, 1, 5, Duration.ofMillis(20), 0);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(bulkhead.getQueued()).isZero();
+        assertThat(bulkhead.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void limitFollowsLatency() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("bulk", 2, 10, 0, Duration.ZERO, 2.0);
+        run(bulkhead, 10, 200, FAST);
+        assertThat(bulkhead.getLimit()).isEqualTo(10);
+
+        // O banco ficou lento: o limite cai até o mínimo
+        run(bulkhead, 2, 100, SLOW);
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+        // Voltou ao normal e o grupo continua ocupando o limite: sobe de novo até o máximo
+        for (int i = 0; i < 50; i++) {
+            run(bulkhead, bulkhead.getLimit(), 1, FAST);
+        }
+        assertThat(bulkhead.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void fixedLimitWithoutTolerance() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("bulk", 1, 4, 0, Duration.ZERO, 0);
+        run(bulkhead, 4, 10, FAST);
+        run(bulkhead, 4, 100, SLOW);
+        assertThat(bulkhead.getLimit()).isEqualTo(4);
+    }
+
+    /**
+     * rounds vezes: ocupa concurrent vagas e libera todas com a latência informada.
+     */
+    private static void run(Bulkhead bulkhead, int concurrent, int rounds, long latencyNanos) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (acquired < concurrent && bulkhead.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                bulkhead.release(latencyNanos);
+            }
+        }
+    }
+}
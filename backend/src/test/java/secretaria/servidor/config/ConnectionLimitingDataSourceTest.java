@@ -0,0 +1,70 @@
+package secretaria.servidor.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionLimitingDataSourceTest {
+
+    private ConnectionLimitingDataSource limited(int maxConnections) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+        return new ConnectionLimitingDataSource(h2, maxConnections, Duration.ofMillis(50));
+    }
+
+    @Test
+    void failsFastWhenAllPermitsAreTaken() throws Exception {
+        ConnectionLimitingDataSource dataSource = limited(1);
+
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThat(dataSource.getAvailablePermits()).isZero();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedCloseReleasesOnlyOnce() throws Exception {
+        ConnectionLimitingDataSource dataSource = limited(2);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void limitMustBeSmallerThanThePool() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(10);
+        pool.setConnectionTimeout(1000);
+        MockEnvironment environment = new MockEnvironment().withProperty("limit.max-connections", "8");
+        environment.setConversionService(new ApplicationConversionService());
+
+        ConnectionLimitingDataSource limited = ConnectionLimiterConfig.limit(pool, environment, "limit");
+        assertThat(limited.getMaxConnections()).isEqualTo(8);
+
+        environment.setProperty("limit.max-connections", "10");
+        assertThatThrownBy(() -> ConnectionLimiterConfig.limit(pool, environment, "limit"))
+                .isInstanceOf(IllegalStateException.class);
+
+        environment.setProperty("limit.max-connections", "8");
+        environment.setProperty("limit.timeout", "1s");
+        assertThatThrownBy(() -> ConnectionLimiterConfig.limit(pool, environment, "limit"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,156 @@
+package secretaria.servidor.config;
+
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primário e réplica em dois H2; a "replicação" é uma cópia das tabelas feita pelo teste,
+ * então a réplica fica atrasada até {@link #replicate()}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID()
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    // Na ordem das chaves estrangeiras
+    private static final List<String> TABLES = List.of("project", "task");
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        // Na produção o schema chega à réplica pela replicação
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", () -> REPLICA_URL);
+        registry.add("app.datasource.replica.username", () -> "sa");
+        registry.add("app.datasource.replica.password", () -> "");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void readOnlyRequestsGoToTheReplica() throws Exception {
+        create("Projeto Replicado");
+
+        assertThat(list(null)).doesNotContain("Projeto Replicado");
+        replicate();
+        assertThat(list(null)).contains("Projeto Replicado");
+    }
+
+    @Test
+    void clientSeesItsOwnWritesBeforeReplication() throws Exception {
+        Cookie sticky = create("Projeto Próprio").getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        assertThat(sticky).isNotNull();
+        String until = sticky.getValue().substring(0, sticky.getValue().indexOf('.'));
+        assertThat(Long.parseLong(until)).isGreaterThan(System.currentTimeMillis());
+        assertThat(list(sticky)).contains("Projeto Próprio");
+        assertThat(list(null)).doesNotContain("Projeto Próprio");
+
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+        assertThat(list(expired)).doesNotContain("Projeto Próprio");
+    }
+
+    @Test
+    void forgedCookieDoesNotPinTheClientToThePrimary() throws Exception {
+        Cookie sticky = create("Projeto Forjado").getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        String signature = sticky.getValue().substring(sticky.getValue().indexOf('.'));
+        long farFuture = System.currentTimeMillis() + 3_600_000;
+
+        // Sem assinatura, com a assinatura de outro instante ou com lixo: lê da réplica
+        for (String forged : List.of(Long.toString(farFuture), farFuture + signature, farFuture + ".abc")) {
+            assertThat(list(new Cookie(ReadYourWritesFilter.COOKIE, forged)))
+                    .as("cookie %s", forged)
+                    .doesNotContain("Projeto Forjado");
+        }
+    }
+
+    @Test
+    void cachedReadsComeFromThePrimary() throws Exception {
+        String body = create("Projeto em Cache").getResponse().getContentAsString();
+        String id = body.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/api/projects/" + id)).andExpect(status().isOk());
+    }
+
+    private MvcResult create(String name) throws Exception {
+        return mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"status\":\"PLANEJADO\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private String list(Cookie cookie) throws Exception {
+        var request = get("/api/projects").param("size", "200");
+        if (cookie != null) {
+            request.cookie(cookie);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia as tabelas do primário (conexão fora de transação, que o roteamento manda ao primário) para a réplica.
+     */
+    private void replicate() throws SQLException {
+        try (Connection primary = dataSource.getConnection();
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            try (Statement delete = replica.createStatement()) {
+                delete.execute("DELETE FROM task");
+                delete.execute("DELETE FROM project");
+            }
+            for (String table : TABLES) {
+                try (Statement select = primary.createStatement();
+                     ResultSet rows = select.executeQuery("SELECT * FROM " + table)) {
+                    int columns = rows.getMetaData().getColumnCount();
+                    String placeholders = "?" + ",?".repeat(columns - 1);
+                    try (PreparedStatement insert = replica.prepareStatement(
+                            "INSERT INTO " + table + " VALUES (" + placeholders + ")")) {
+                        while (rows.next()) {
+                            for (int column = 1; column <= columns; column++) {
+                                insert.setObject(column, rows.getObject(column));
+                            }
+                            insert.executeUpdate();
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
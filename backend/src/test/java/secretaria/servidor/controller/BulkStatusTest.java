@@ -0,0 +1,242 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+import secretaria.servidor.event.TaskChangedEvent;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mudança de status em lote (PATCH /api/projects/status e PATCH /api/projects/{id}/tasks/status):
+ * só as linhas selecionadas mudam, com a versão nova na resposta, e cada uma gera um evento
+ * com o status de antes (que os contadores do painel usam). Na criação em lote, nenhuma linha
+ * existente muda, mesmo com o id dela no corpo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class BulkStatusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Project project;
+    private List<Task> tasks;
+    private Task otherProjectTask;
+
+    @BeforeEach
+    void seed() {
+        project = project(ProjectStatus.EM_EXECUCAO,
+                TaskStatus.PLANEJADO, TaskStatus.PLANEJADO, TaskStatus.EM_EXECUCAO, TaskStatus.FINALIZADO);
+        tasks = project.getTasks();
+        otherProjectTask = project(ProjectStatus.PLANEJADO, TaskStatus.PLANEJADO).getTasks().get(0);
+        // Gravado direto no repositório, sem passar pelos eventos do service
+        statsCounters.rebuild();
+    }
+
+    @Test
+    void updatesTheSelectedTasksByIdsAndByCurrentStatus() throws Exception {
+        // Por ids: a tarefa de outro projeto fica de fora
+        JsonNode byIds = read(patchTasks(project.getId(), Map.of(
+                "taskIds", List.of(tasks.get(0).getId(), tasks.get(2).getId(), otherProjectTask.getId()),
+                "status", "ABORTADO"))
+                .andExpect(status().isOk()));
+        assertThat(ids(byIds)).containsExactlyInAnyOrder(tasks.get(0).getId(), tasks.get(2).getId());
+        byIds.forEach(task -> {
+            assertThat(task.get("status").asText()).isEqualTo("ABORTADO");
+            assertThat(task.get("version").asLong()).isEqualTo(1);
+        });
+        assertThat(taskRepository.findById(otherProjectTask.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.PLANEJADO);
+        assertTaskEvents(Map.of(
+                tasks.get(0).getId(), TaskStatus.PLANEJADO,
+                tasks.get(2).getId(), TaskStatus.EM_EXECUCAO), TaskStatus.ABORTADO);
+
+        // Pelo status atual: só a outra PLANEJADO do projeto
+        events.clear();
+        JsonNode byStatus = read(patchTasks(project.getId(), Map.of("currentStatus", "PLANEJADO", "status", "FINALIZADO"))
+                .andExpect(status().isOk()));
+        assertThat(ids(byStatus)).containsExactly(tasks.get(1).getId());
+        assertTaskEvents(Map.of(tasks.get(1).getId(), TaskStatus.PLANEJADO), TaskStatus.FINALIZADO);
+
+        // Os dois filtros juntos: dos ids informados, só os que estão no status atual
+        events.clear();
+        JsonNode both = read(patchTasks(project.getId(), Map.of(
+                "taskIds", List.of(tasks.get(2).getId(), tasks.get(3).getId()),
+                "currentStatus", "FINALIZADO",
+                "status", "EM_EXECUCAO"))
+                .andExpect(status().isOk()));
+        assertThat(ids(both)).containsExactly(tasks.get(3).getId());
+        assertTaskEvents(Map.of(tasks.get(3).getId(), TaskStatus.FINALIZADO), TaskStatus.EM_EXECUCAO);
+
+        assertThat(taskRepository.findAllById(ids(tasks)).stream().map(Task::getStatus))
+                .containsExactlyInAnyOrder(TaskStatus.ABORTADO, TaskStatus.FINALIZADO,
+                        TaskStatus.ABORTADO, TaskStatus.EM_EXECUCAO);
+    }
+
+    @Test
+    void emptyOrMissingTaskSelectionIsNotFound() throws Exception {
+        patchTasks(project.getId(), Map.of("currentStatus", "ABORTADO", "status", "FINALIZADO"))
+                .andExpect(status().isNotFound());
+        patchTasks(project.getId(), Map.of("taskIds", List.of(Long.MAX_VALUE), "status", "FINALIZADO"))
+                .andExpect(status().isNotFound());
+        patchTasks(project.getId(), Map.of("taskIds", List.of(otherProjectTask.getId()), "status", "FINALIZADO"))
+                .andExpect(status().isNotFound());
+        patchTasks(Long.MAX_VALUE, Map.of("currentStatus", "PLANEJADO", "status", "FINALIZADO"))
+                .andExpect(status().isNotFound());
+        // Sem ids nem status atual: seleção inválida
+        patchTasks(project.getId(), Map.of("status", "FINALIZADO"))
+                .andExpect(status().isBadRequest());
+        assertThat(events.stream(TaskChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void updatesTheSelectedProjects() throws Exception {
+        Project planned = project(ProjectStatus.PLANEJADO);
+
+        JsonNode updated = read(patchProjects(Map.of(
+                "projectIds", List.of(project.getId(), planned.getId(), Long.MAX_VALUE),
+                "status", "FINALIZADO"))
+                .andExpect(status().isOk()));
+        assertThat(ids(updated)).containsExactlyInAnyOrder(project.getId(), planned.getId());
+        updated.forEach(row -> {
+            assertThat(row.get("status").asText()).isEqualTo("FINALIZADO");
+            assertThat(row.get("version").asLong()).isEqualTo(1);
+        });
+
+        Map<Long, ProjectStatus> previous = new HashMap<>();
+        events.stream(ProjectChangedEvent.class).forEach(event -> {
+            assertThat(event.getType()).isEqualTo(ChangeType.STATUS_CHANGED);
+            assertThat(event.getStatus()).isEqualTo(ProjectStatus.FINALIZADO);
+            assertThat(event.getVersion()).isEqualTo(1);
+            previous.put(event.getProjectId(), event.getPreviousStatus());
+        });
+        assertThat(previous).isEqualTo(Map.of(
+                project.getId(), ProjectStatus.EM_EXECUCAO,
+                planned.getId(), ProjectStatus.PLANEJADO));
+    }
+
+    @Test
+    void emptyOrMissingProjectSelectionIsNotFound() throws Exception {
+        patchProjects(Map.of("projectIds", List.of(Long.MAX_VALUE), "status", "FINALIZADO"))
+                .andExpect(status().isNotFound());
+        patchProjects(Map.of("projectIds", List.of(), "status", "FINALIZADO"))
+                .andExpect(status().isBadRequest());
+        assertThat(events.stream(ProjectChangedEvent.class)).isEmpty();
+        assertThat(projectRepository.findById(project.getId()).orElseThrow().getStatus())
+                .isEqualTo(ProjectStatus.EM_EXECUCAO);
+    }
+
+    @Test
+    void batchCreateIgnoresClientIds() throws Exception {
+        JsonNode created = read(mockMvc.perform(post("/api/projects/" + project.getId() + "/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("tasks", List.of(Map.of(
+                                "id", otherProjectTask.getId(), "title", "Nova", "status", "PLANEJADO"))))))
+                .andExpect(status().isOk()));
+
+        assertThat(created.get(0).get("id").asLong()).isNotEqualTo(otherProjectTask.getId());
+        Task untouched = taskRepository.findById(otherProjectTask.getId()).orElseThrow();
+        assertThat(untouched.getTitle()).isEqualTo(otherProjectTask.getTitle());
+        assertThat(projectRepository.findAllWithTasksByIdIn(List.of(project.getId())).get(0).getTasks())
+                .hasSize(tasks.size() + 1);
+        assertThat(projectRepository.findAllWithTasksByIdIn(List.of(otherProjectTask.getProject().getId())).get(0)
+                .getTasks()).hasSize(1);
+    }
+
+    /**
+     * Um evento STATUS_CHANGED por tarefa alterada, com o status de antes de cada uma.
+     */
+    private void assertTaskEvents(Map<Long, TaskStatus> previousStatuses, TaskStatus status) {
+        Map<Long, TaskStatus> previous = new HashMap<>();
+        events.stream(TaskChangedEvent.class).forEach(event -> {
+            assertThat(event.getType()).isEqualTo(ChangeType.STATUS_CHANGED);
+            assertThat(event.getProjectId()).isEqualTo(project.getId());
+            assertThat(event.getStatus()).isEqualTo(status);
+            assertThat(previous.put(event.getTaskId(), event.getPreviousStatus())).as("evento repetido").isNull();
+        });
+        assertThat(previous).isEqualTo(previousStatuses);
+    }
+
+    private ResultActions patchTasks(Long projectId, Map<String, Object> body) throws Exception {
+        return mockMvc.perform(patch("/api/projects/" + projectId + "/tasks/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private ResultActions patchProjects(Map<String, Object> body) throws Exception {
+        return mockMvc.perform(patch("/api/projects/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private Project project(ProjectStatus status, TaskStatus... taskStatuses) {
+        Project project = new Project();
+        project.setName("Projeto em Lote");
+        project.setStatus(status);
+        for (TaskStatus taskStatus : taskStatuses) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + taskStatus);
+            task.setStatus(taskStatus);
+            task.setProject(project);
+            project.getTasks().add(task);
+        }
+        return projectRepository.save(project);
+    }
+
+    private static List<Long> ids(JsonNode rows) {
+        return StreamSupport.stream(rows.spliterator(), false)
+                .map(row -> row.get("id").asLong())
+                .toList();
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
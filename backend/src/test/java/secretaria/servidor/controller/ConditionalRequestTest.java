@@ -0,0 +1,117 @@
+package secretaria.servidor.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET condicional (If-None-Match → 304) e escrita condicional (If-Match → 412).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void seed() {
+        Project project = new Project();
+        project.setName("Projeto ETag");
+        project.setStatus(ProjectStatus.PLANEJADO);
+        Task task = new Task();
+        task.setTitle("Tarefa ETag");
+        task.setStatus(TaskStatus.PLANEJADO);
+        task.setProject(project);
+        project.getTasks().add(task);
+        project = projectRepository.save(project);
+        projectId = project.getId();
+        taskId = project.getTasks().get(0).getId();
+    }
+
+    @Test
+    void unchangedProjectAnswersNotModified() throws Exception {
+        String etag = etagOf("/api/projects/" + projectId);
+
+        mockMvc.perform(get("/api/projects/" + projectId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        String tasksEtag = etagOf("/api/projects/" + projectId + "/tasks");
+        mockMvc.perform(get("/api/projects/" + projectId + "/tasks").header(HttpHeaders.IF_NONE_MATCH, tasksEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void taskChangeChangesProjectEtag() throws Exception {
+        String etag = etagOf("/api/projects/" + projectId);
+
+        mockMvc.perform(patch("/api/projects/" + projectId + "/tasks/" + taskId + "/status")
+                        .param("status", "FINALIZADO"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/projects/" + projectId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].status").value("FINALIZADO"));
+        assertThat(etagOf("/api/projects/" + projectId)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void staleIfMatchFailsWithoutWriting() throws Exception {
+        String etag = etagOf("/api/projects/" + projectId);
+        String body = "{\"name\":\"Projeto ETag 2\",\"status\":\"EM_EXECUCAO\"}";
+
+        String newEtag = mockMvc.perform(put("/api/projects/" + projectId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+
+        mockMvc.perform(put("/api/projects/" + projectId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sobrescrito\",\"status\":\"ABORTADO\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/projects/" + projectId + "/tasks/" + taskId + "/status")
+                        .header(HttpHeaders.IF_MATCH, "\"99\"")
+                        .param("status", "ABORTADO"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/projects/" + projectId))
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.name").value("Projeto ETag 2"))
+                .andExpect(jsonPath("$.tasks[0].status").value("PLANEJADO"));
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
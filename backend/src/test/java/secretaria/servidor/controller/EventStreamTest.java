@@ -0,0 +1,183 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.service.ProjectService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O GET /api/events entrega as escritas dos services a todos os assinantes, só depois do commit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EventStreamTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Stream<String>> streams = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void closeStreams() {
+        streams.forEach(Stream::close);
+    }
+
+    @Test
+    void everySubscriberReceivesCommittedWrites() throws Exception {
+        BlockingQueue<String> first = subscribe();
+        BlockingQueue<String> second = subscribe();
+
+        String created = send(HttpRequest.newBuilder(uri("/api/projects"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Projeto Avisado\",\"status\":\"PLANEJADO\"}")));
+        long projectId = objectMapper.readTree(created).get("id").asLong();
+        send(HttpRequest.newBuilder(uri("/api/projects/" + projectId + "/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Avisar\",\"status\":\"PLANEJADO\"}")));
+        send(HttpRequest.newBuilder(uri("/api/projects/" + projectId + "/status?status=EM_EXECUCAO"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+
+        for (BlockingQueue<String> events : List.of(first, second)) {
+            JsonNode project = next(events);
+            assertThat(project.get("entity").asText()).isEqualTo("project");
+            assertThat(project.get("type").asText()).isEqualTo("created");
+            assertThat(project.get("id").asLong()).isEqualTo(projectId);
+            assertThat(project.get("version").asLong()).isZero();
+
+            JsonNode task = next(events);
+            assertThat(task.get("entity").asText()).isEqualTo("task");
+            assertThat(task.get("type").asText()).isEqualTo("created");
+            assertThat(task.get("projectId").asLong()).isEqualTo(projectId);
+
+            JsonNode status = next(events);
+            assertThat(status.get("type").asText()).isEqualTo("statusChanged");
+            assertThat(status.get("status").asText()).isEqualTo("EM_EXECUCAO");
+            // A criação da tarefa também subiu a versão do projeto
+            assertThat(status.get("version").asLong()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void batchCreationIsOneEventWithTheCount() throws Exception {
+        BlockingQueue<String> events = subscribe();
+
+        String created = send(HttpRequest.newBuilder(uri("/api/projects"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Projeto em Lote\",\"status\":\"PLANEJADO\"}")));
+        long projectId = objectMapper.readTree(created).get("id").asLong();
+        // Mais tarefas que o buffer de cada assinante: um evento por tarefa derrubaria a conexão
+        int tasks = 1_000;
+        StringBuilder body = new StringBuilder("{\"tasks\":[");
+        for (int i = 0; i < tasks; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Lote ").append(i).append("\",\"status\":\"PLANEJADO\"}");
+        }
+        send(HttpRequest.newBuilder(uri("/api/projects/" + projectId + "/tasks/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.append("]}").toString())));
+
+        assertThat(next(events).get("entity").asText()).isEqualTo("project");
+        JsonNode batch = next(events);
+        assertThat(batch.get("entity").asText()).isEqualTo("task");
+        assertThat(batch.get("type").asText()).isEqualTo("created");
+        assertThat(batch.get("projectId").asLong()).isEqualTo(projectId);
+        assertThat(batch.get("count").asLong()).isEqualTo(tasks);
+        assertThat(batch.has("id")).isFalse();
+        assertThat(events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void rolledBackWritesAreNotPublished() throws Exception {
+        BlockingQueue<String> events = subscribe();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Project project = new Project();
+            project.setName("Projeto Desfeito");
+            project.setStatus(ProjectStatus.PLANEJADO);
+            projectService.create(project);
+            status.setRollbackOnly();
+        });
+        send(HttpRequest.newBuilder(uri("/api/projects"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Projeto Gravado\",\"status\":\"PLANEJADO\"}")));
+
+        JsonNode event = next(events);
+        assertThat(event.get("type").asText()).isEqualTo("created");
+        assertThat(projectService.findById(event.get("id").asLong()).name()).isEqualTo("Projeto Gravado");
+        assertThat(events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    /**
+     * Abre uma assinatura e devolve as linhas "data:" que forem chegando.
+     */
+    private BlockingQueue<String> subscribe() throws Exception {
+        HttpResponse<Stream<String>> response = client.sendAsync(
+                        HttpRequest.newBuilder(uri("/api/events")).header("Accept", "text/event-stream").build(),
+                        HttpResponse.BodyHandlers.ofLines())
+                .get(5, TimeUnit.SECONDS);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        BlockingQueue<String> data = new LinkedBlockingQueue<>();
+        Stream<String> lines = response.body();
+        streams.add(lines);
+        Thread reader = new Thread(() -> {
+            try {
+                lines.filter(line -> line.startsWith("data:"))
+                        .forEach(line -> data.add(line.substring("data:".length())));
+            } catch (RuntimeException e) {
+                // conexão fechada no fim do teste
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        return data;
+    }
+
+    private JsonNode next(BlockingQueue<String> events) throws Exception {
+        String data = events.poll(5, TimeUnit.SECONDS);
+        assertThat(data).as("evento recebido").isNotNull();
+        return objectMapper.readTree(data);
+    }
+
+    private String send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(5)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("%s %s", response.request().method(), response.uri()).isEqualTo(200);
+        return response.body();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,102 @@
+package secretaria.servidor.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.metrics.SqlStatementsPerRequestFilter;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.ProjectService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * As métricas de endpoint, service, repositório, pool e Hibernate são registradas
+ * e saem no formato do Prometheus.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        Project project = new Project();
+        project.setName("Projeto Métricas");
+        project.setStatus(ProjectStatus.PLANEJADO);
+        Task task = new Task();
+        task.setTitle("Tarefa Métricas");
+        task.setStatus(TaskStatus.PLANEJADO);
+        task.setProject(project);
+        project.getTasks().add(task);
+        projectId = projectRepository.save(project).getId();
+    }
+
+    @Test
+    void requestsAreTimedWithTheirSqlCount() throws Exception {
+        mockMvc.perform(patch("/api/projects/" + projectId + "/status").param("status", "EM_EXECUCAO"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/" + projectId)).andExpect(status().isOk());
+
+        Timer http = registry.find("http.server.requests").tag("uri", "/api/projects/{id}").tag("method", "GET").timer();
+        assertThat(http).isNotNull();
+        assertThat(http.count()).isPositive();
+
+        DistributionSummary statements = registry.find(SqlStatementsPerRequestFilter.METRIC)
+                .tag("uri", "/api/projects/{id}").tag("method", "GET").summary();
+        assertThat(statements).isNotNull();
+        // projeto + tarefas (o mesmo limite do QueryCountTest)
+        assertThat(statements.max()).isBetween(1.0, 2.0);
+
+        assertThat(registry.find("app.service").tag("class", ProjectService.class.getName()).tag("method", "updateStatus").timer())
+                .isNotNull();
+        assertThat(registry.find("spring.data.repository.invocations").tag("repository", "ProjectRepository").timer())
+                .isNotNull();
+        assertThat(registry.find("hikaricp.connections.acquire").timer()).isNotNull();
+        assertThat(registry.find("hibernate.entities.loads").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void prometheusScrapeListsTheApplicationMetrics() throws Exception {
+        mockMvc.perform(get("/api/projects/" + projectId)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_count")
+                .contains("quantile=\"0.99\"")
+                .contains("sql_statements_per_request{")
+                .contains("app_service_seconds")
+                .contains("spring_data_repository_invocations_seconds")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .contains("app_bulkhead_limit{group=\"bulk\"")
+                .contains("app_bulkhead_rejected_total{group=\"read\"");
+    }
+}
@@ -0,0 +1,144 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exclusão de projetos sem carregar as tarefas: número fixo de SQLs na exclusão direta,
+ * lotes na exclusão em segundo plano, e os contadores do painel batendo com uma recontagem.
+ */
+@SpringBootTest(properties = "app.projects.delete-chunk-size=4")
+@AutoConfigureMockMvc
+class ProjectDeleteTest {
+
+    private static final int TASKS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void deleteRunsFixedStatementsWhateverTheTaskCount() throws Exception {
+        Long projectId = seedProject(200);
+        JsonNode before = stats();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(delete("/api/projects/" + projectId)).andExpect(status().isNoContent());
+
+        // Trava do projeto + DELETE das tarefas (com a contagem) + DELETE do projeto
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(1);
+        assertThat(taskRepository.findAllByProjectId(projectId)).isEmpty();
+        assertThat(stats().get("totalTasks").asLong()).isEqualTo(before.get("totalTasks").asLong() - 200);
+        assertRecountMatches();
+    }
+
+    @Test
+    void asyncDeleteRemovesTasksInChunks() throws Exception {
+        Long projectId = seedProject(TASKS);
+        JsonNode before = stats();
+
+        String location = mockMvc.perform(delete("/api/projects/" + projectId).param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        JsonNode job = awaitCompletion(location);
+
+        assertThat(job.get("type").asText()).isEqualTo("project-delete");
+        assertThat(job.at("/progress/tasksDeleted").asLong()).isEqualTo(TASKS);
+        assertThat(job.at("/progress/projectsDeleted").asLong()).isEqualTo(1);
+        mockMvc.perform(get("/api/projects/" + projectId)).andExpect(status().isNotFound());
+        assertThat(taskRepository.findAllByProjectId(projectId)).isEmpty();
+        assertThat(stats().get("totalProjects").asLong()).isEqualTo(before.get("totalProjects").asLong() - 1);
+        assertRecountMatches();
+    }
+
+    @Test
+    void asyncDeleteOfMissingProjectIsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/projects/" + Long.MAX_VALUE).param("async", "true"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long seedProject(int tasks) {
+        Project project = new Project();
+        project.setName("Projeto Excluído");
+        project.setStatus(ProjectStatus.EM_EXECUCAO);
+        TaskResponsible[] responsibles = TaskResponsible.values();
+        TaskStatus[] statuses = TaskStatus.values();
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setResponsible(i % 7 == 0 ? null : responsibles[i % responsibles.length]);
+            task.setProject(project);
+            project.getTasks().add(task);
+        }
+        Long id = projectRepository.save(project).getId();
+        // Gravado direto no repositório, sem passar pelos eventos do service
+        statsCounters.rebuild();
+        return id;
+    }
+
+    private JsonNode awaitCompletion(String location) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (job.get("status").asText().equals("COMPLETED")) {
+                return job;
+            }
+            assertThat(job.get("status").asText()).isNotEqualTo("FAILED");
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Exclusão não terminou: " + location);
+    }
+
+    private void assertRecountMatches() throws Exception {
+        JsonNode incremental = stats();
+        statsCounters.rebuild();
+        assertThat(incremental).isEqualTo(stats());
+    }
+
+    private JsonNode stats() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
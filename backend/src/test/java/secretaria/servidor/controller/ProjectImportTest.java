@@ -0,0 +1,198 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.config.ExecutorConfig;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.repository.TaskRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.import.max-size=1MB")
+@AutoConfigureMockMvc
+class ProjectImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.JOBS)
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @BeforeEach
+    void clean() {
+        projectRepository.deleteAll();
+    }
+
+    @Test
+    void csvImportSkipsInvalidRowsAndReportsThem() throws Exception {
+        String csv = """
+                project_name,project_description,start_date,end_date,team_responsible,project_status,task_title,task_description,task_responsible,task_due_days,task_status
+                Reforma,Obra da sede,2030-01-01,2030-06-01,ADMPLN,PLANEJADO,Orçamento,,PLO,5,PLANEJADO
+                Reforma,,,,,,Licitação,,GFU,10,EM_EXECUCAO
+                Reforma,,,,,,Prazo ruim,,CTB,-1,PLANEJADO
+                Datas trocadas,,2030-06-01,2030-01-01,ADMFIN,PLANEJADO,,,,,
+                Sem tarefas,,,,ADMAPO,EM_EXECUCAO,,,,,
+                """;
+
+        JsonNode job = runImport(MediaType.parseMediaType("text/csv"), csv);
+
+        assertThat(job.at("/progress/rowsRead").asLong()).isEqualTo(5);
+        assertThat(job.at("/progress/projectsImported").asLong()).isEqualTo(2);
+        assertThat(job.at("/progress/tasksImported").asLong()).isEqualTo(2);
+        assertThat(job.at("/progress/rowsFailed").asLong()).isEqualTo(2);
+        assertThat(job.at("/errors/0/row").asLong()).isEqualTo(4);
+        assertThat(job.at("/errors/1/row").asLong()).isEqualTo(5);
+
+        List<Project> projects = projectRepository.findAll().stream()
+                .sorted(Comparator.comparing(Project::getName)).toList();
+        assertThat(projects).extracting(Project::getName).containsExactly("Reforma", "Sem tarefas");
+    }
+
+    @Test
+    void csvProjectWithManyTasksIsWrittenInPartsAndLongFieldsFailPerRow() throws Exception {
+        StringBuilder csv = new StringBuilder("project_name,project_status,task_title,task_status\n");
+        for (int i = 1; i <= 2_500; i++) {
+            String title = i == 1_500 ? "x".repeat(256) : "Tarefa " + i;
+            csv.append("Grande,PLANEJADO,").append(title).append(",PLANEJADO\n");
+        }
+        csv.append("Pequeno,EM_EXECUCAO,Única,PLANEJADO\n");
+        csv.append("x".repeat(256)).append(",EM_EXECUCAO,,\n");
+
+        JsonNode job = runImport(MediaType.parseMediaType("text/csv"), csv.toString());
+
+        assertThat(job.at("/progress/projectsImported").asLong()).isEqualTo(2);
+        assertThat(job.at("/progress/tasksImported").asLong()).isEqualTo(2_500);
+        assertThat(job.at("/progress/rowsFailed").asLong()).isEqualTo(2);
+        // Linha 1 é o cabeçalho
+        assertThat(job.at("/errors/0/row").asLong()).isEqualTo(1_501);
+        assertThat(job.at("/errors/0/message").asText()).contains("255");
+        assertThat(job.at("/errors/1/row").asLong()).isEqualTo(2_503);
+
+        List<Project> projects = projectRepository.findAll().stream()
+                .sorted(Comparator.comparing(Project::getName)).toList();
+        assertThat(projects).extracting(Project::getName).containsExactly("Grande", "Pequeno");
+        assertThat(taskRepository.count()).isEqualTo(2_500);
+    }
+
+    @Test
+    void ndjsonImportReadsTheExportFormat() throws Exception {
+        String ndjson = """
+                {"id":99,"name":"Alpha","status":"PLANEJADO","tasks":[{"title":"T1","status":"PLANEJADO"},{"title":"T2","status":"FINALIZADO"}]}
+                {"name":"","status":"PLANEJADO"}
+                {"name":"Beta","status":"EM_EXECUCAO"
+                {"name":"Gama","status":"ABORTADO","tasks":[]}
+                """;
+
+        JsonNode job = runImport(MediaType.APPLICATION_NDJSON, ndjson);
+
+        assertThat(job.at("/progress/projectsImported").asLong()).isEqualTo(2);
+        assertThat(job.at("/progress/tasksImported").asLong()).isEqualTo(2);
+        assertThat(job.at("/errorCount").asLong()).isEqualTo(2);
+        assertThat(projectRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void bodyOverTheLimitIsRejectedWithoutLeavingTheFile() throws Exception {
+        List<Path> before = importFiles();
+        String line = "{\"name\":\"Grande\",\"status\":\"PLANEJADO\"}\n";
+
+        mockMvc.perform(post("/api/projects/import").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line.repeat(1024 * 1024 / line.length() + 1)))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertThat(importFiles()).isEqualTo(before);
+        assertThat(projectRepository.count()).isZero();
+    }
+
+    @Test
+    void fullJobExecutorRejectsTheImportWithoutLeavingTheFile() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Ocupa todas as threads e a fila do executor de jobs
+            while (true) {
+                try {
+                    jobExecutor.execute(() -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                } catch (TaskRejectedException e) {
+                    break;
+                }
+            }
+            List<Path> before = importFiles();
+
+            mockMvc.perform(post("/api/projects/import").contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"name\":\"Recusado\",\"status\":\"PLANEJADO\"}\n"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+
+            assertThat(importFiles()).isEqualTo(before);
+        } finally {
+            release.countDown();
+        }
+        assertThat(projectRepository.count()).isZero();
+    }
+
+    private static List<Path> importFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("project-import-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private JsonNode runImport(MediaType contentType, String body) throws Exception {
+        String location = mockMvc.perform(post("/api/projects/import").contentType(contentType).content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (job.get("status").asText().equals("COMPLETED")) {
+                return job;
+            }
+            assertThat(job.get("status").asText()).isNotEqualTo("FAILED");
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Importação não terminou: " + location);
+    }
+}
@@ -0,0 +1,172 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.dto.PageCursor;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.ProjectService;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listagem paginada de projetos (GET /api/projects): cursor de ida e volta pelo X-Next-Cursor,
+ * filtros de status e datas, tamanho de página e parâmetros inválidos.
+ * Cada teste grava os projetos numa faixa de datas só dele e filtra por ela.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectListTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Test
+    void pagesThroughFilteredProjectsWithTheCursor() throws Exception {
+        LocalDate start = dateRange();
+        List<Project> projects = new ArrayList<>();
+        ProjectStatus[] statuses = ProjectStatus.values();
+        for (int i = 0; i < 7; i++) {
+            projects.add(project(start, start.plusDays(i), statuses[i % statuses.length]));
+        }
+        // Fora da faixa: começa antes e termina depois
+        projects.add(project(start.minusDays(1), start.plusDays(1), ProjectStatus.EM_EXECUCAO));
+        projects.add(project(start, start.plusDays(30), ProjectStatus.EM_EXECUCAO));
+        List<Project> saved = save(projects);
+        List<Project> inRange = saved.subList(0, 7);
+
+        Map<String, String> range = Map.of(
+                "startDateFrom", start.toString(),
+                "endDateTo", start.plusDays(10).toString());
+        assertThat(walk(range)).isEqualTo(inRange.stream().map(Project::getId).toList());
+
+        Map<String, String> inExecution = Map.of(
+                "startDateFrom", start.toString(),
+                "endDateTo", start.plusDays(10).toString(),
+                "status", "EM_EXECUCAO");
+        assertThat(walk(inExecution)).isEqualTo(inRange.stream()
+                .filter(project -> project.getStatus() == ProjectStatus.EM_EXECUCAO)
+                .map(Project::getId)
+                .toList());
+    }
+
+    @Test
+    void capsThePageSize() throws Exception {
+        LocalDate start = dateRange();
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < ProjectService.MAX_PAGE_SIZE + 1; i++) {
+            projects.add(project(start, start, ProjectStatus.PLANEJADO));
+        }
+        save(projects);
+
+        MockHttpServletResponse capped = list(Map.of("startDateFrom", start.toString(),
+                "endDateTo", start.toString(), "size", "1000"));
+        assertThat(objectMapper.readTree(capped.getContentAsString())).hasSize(ProjectService.MAX_PAGE_SIZE);
+        assertThat(capped.getHeader(ProjectController.NEXT_CURSOR_HEADER)).isNotNull();
+
+        MockHttpServletResponse byDefault = list(Map.of("startDateFrom", start.toString(),
+                "endDateTo", start.toString()));
+        assertThat(objectMapper.readTree(byDefault.getContentAsString())).hasSize(ProjectService.DEFAULT_PAGE_SIZE);
+        assertThat(byDefault.getHeader(ProjectController.NEXT_CURSOR_HEADER)).isNotNull();
+    }
+
+    @Test
+    void rejectsInvalidPaging() throws Exception {
+        mockMvc.perform(get("/api/projects").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects").param("cursor", "não é base64!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects").param("cursor", encode("id:abc")))
+                .andExpect(status().isBadRequest());
+        // Cursor de outra listagem (a de tarefas por prazo)
+        mockMvc.perform(get("/api/projects").param("cursor", PageCursor.encode(3, 10L)))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Percorre todas as páginas (de 3) e devolve os ids na ordem recebida.
+     */
+    private List<Long> walk(Map<String, String> params) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Map<String, String> page = new HashMap<>(params);
+            page.put("size", "3");
+            if (cursor != null) {
+                page.put("cursor", cursor);
+            }
+            MockHttpServletResponse response = list(page);
+            JsonNode items = objectMapper.readTree(response.getContentAsString());
+            assertThat(items.size()).isLessThanOrEqualTo(3);
+            items.forEach(project -> ids.add(project.get("id").asLong()));
+            cursor = response.getHeader(ProjectController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+        assertThat(pages).isEqualTo(Math.max(1, (ids.size() + 2) / 3));
+        return ids;
+    }
+
+    private MockHttpServletResponse list(Map<String, String> params) throws Exception {
+        var request = get("/api/projects");
+        params.forEach(request::param);
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private List<Project> save(List<Project> projects) {
+        List<Project> saved = projectRepository.saveAll(projects);
+        // Gravado direto no repositório, sem passar pelos eventos do service
+        statsCounters.rebuild();
+        return saved;
+    }
+
+    private static Project project(LocalDate startDate, LocalDate endDate, ProjectStatus status) {
+        Project project = new Project();
+        project.setName("Projeto Listado");
+        project.setStartDate(startDate);
+        project.setEndDate(endDate);
+        project.setStatus(status);
+        return project;
+    }
+
+    /**
+     * Uma faixa de datas longe das usadas pelos outros testes.
+     */
+    private static LocalDate dateRange() {
+        return LocalDate.of(2600, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(1_000) * 100L);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
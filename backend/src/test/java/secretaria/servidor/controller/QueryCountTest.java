@@ -0,0 +1,292 @@
+package secretaria.servidor.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.search.ProjectSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que cada endpoint de leitura executa um número fixo de SQLs,
+ * independente de quantos projetos/tarefas retorna. Se algum valor abaixo
+ * subir, alguém reintroduziu um N+1.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    private static final int PROJECTS = 40;
+    private static final int TASKS_PER_PROJECT = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+    private Long anyProjectId;
+
+    @BeforeEach
+    void seed() {
+        projectRepository.deleteAll();
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setName("Projeto Contagem " + i);
+            project.setStatus(i % 2 == 0 ? ProjectStatus.PLANEJADO : ProjectStatus.EM_EXECUCAO);
+            for (int j = 0; j < TASKS_PER_PROJECT; j++) {
+                Task task = new Task();
+                task.setTitle("Tarefa " + j);
+                task.setStatus(TaskStatus.PLANEJADO);
+                task.setResponsible(TaskResponsible.values()[j % TaskResponsible.values().length]);
+                task.setProject(project);
+                project.getTasks().add(task);
+            }
+            projects.add(project);
+        }
+        anyProjectId = projectRepository.saveAll(projects).get(0).getId();
+        // A massa foi gravada direto no repositório, sem passar pelos eventos do service
+        projectSearchIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listPageRunsPageQueryPlusOneBatchForTasks() throws Exception {
+        assertStatements("/api/projects?size=" + PROJECTS, 2);
+    }
+
+    @Test
+    void searchLoadsTasksInTheSameQuery() throws Exception {
+        assertStatements("/api/projects/search?name=contagem&limit=" + PROJECTS, 1);
+    }
+
+    @Test
+    void searchWithoutTheIndexLimitsInTheDatabase() throws Exception {
+        // Índice ainda não carregado: a busca cai no banco
+        ReflectionTestUtils.setField(projectSearchIndex, "ready", false);
+        try {
+            // SELECT dos ids com LIMIT + SELECT dos projetos com as tarefas
+            assertStatements("/api/projects/search?name=contagem&limit=3", 2);
+            // Só os 3 projetos da página e as tarefas deles, não todos os que o nome casa
+            assertThat(statistics.getEntityLoadCount()).isEqualTo(3 + 3 * TASKS_PER_PROJECT);
+        } finally {
+            projectSearchIndex.rebuild();
+        }
+    }
+
+    @Test
+    void byStatusLoadsTasksInTheSameQuery() throws Exception {
+        assertStatements("/api/projects/status/PLANEJADO", 1);
+    }
+
+    @Test
+    void getByIdLoadsProjectAndTasks() throws Exception {
+        assertStatements("/api/projects/" + anyProjectId, 2);
+    }
+
+    @Test
+    void listTasksChecksProjectAndLoadsTasks() throws Exception {
+        assertStatements("/api/projects/" + anyProjectId + "/tasks", 2);
+    }
+
+    @Test
+    void repeatedReadsComeFromCacheUntilAWrite() throws Exception {
+        assertStatements("/api/projects/" + anyProjectId, 2);
+        assertStatements("/api/projects/" + anyProjectId, 0);
+        assertStatements("/api/projects/" + anyProjectId + "/tasks", 0);
+        // A listagem por status não tem cache
+        assertStatements("/api/projects/status/PLANEJADO", 1);
+        assertStatements("/api/projects/status/PLANEJADO", 1);
+
+        Long taskId = projectRepository.findAllWithTasksByIdIn(List.of(anyProjectId)).get(0).getTasks().get(0).getId();
+        mockMvc.perform(patch("/api/projects/" + anyProjectId + "/tasks/" + taskId + "/status")
+                        .param("status", "FINALIZADO"))
+                .andExpect(status().isOk());
+
+        assertStatements("/api/projects/" + anyProjectId, 2);
+        assertStatements("/api/projects/status/PLANEJADO", 1);
+    }
+
+    @Test
+    void summariesRunOneQueryWithoutLoadingEntities() throws Exception {
+        assertStatements("/api/projects/summary?size=" + PROJECTS, 1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertStatements("/api/projects/summary/search?name=contagem", 1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertStatements("/api/projects/summary/status/PLANEJADO", 1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void unchangedListsAnswerNotModifiedFromIdsAndVersionsOnly() throws Exception {
+        for (String url : List.of("/api/projects?size=10", "/api/projects/summary?size=10",
+                "/api/projects/search?name=contagem", "/api/projects/summary/search?name=contagem",
+                "/api/projects/status/PLANEJADO", "/api/projects/summary/status/PLANEJADO")) {
+            String etag = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(etag).as("ETag de %s", url).startsWith("W/");
+
+            statistics.clear();
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+            // Só o SELECT de id e versão: nem tarefas nem contagens
+            assertThat(statistics.getPrepareStatementCount()).as("SQLs no 304 de %s", url).isEqualTo(1);
+        }
+
+        // Uma tarefa alterada sobe a versão do projeto e muda o ETag dos resumos
+        String summaryEtag = mockMvc.perform(get("/api/projects/summary?size=10"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Long taskId = projectRepository.findAllWithTasksByIdIn(List.of(anyProjectId)).get(0).getTasks().get(0).getId();
+        mockMvc.perform(patch("/api/projects/" + anyProjectId + "/tasks/" + taskId + "/status")
+                        .param("status", "FINALIZADO"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/summary?size=10").header(HttpHeaders.IF_NONE_MATCH, summaryEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].finishedTaskCount").value(1));
+    }
+
+    @Test
+    void exportStreamsEveryProjectWithBatchedTasks() throws Exception {
+        statistics.clear();
+        MvcResult started = mockMvc.perform(get("/api/projects/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(PROJECTS);
+        assertThat(lines[0]).startsWith("{").contains("\"tasks\":[{");
+        // 1 SELECT em streaming dos projetos + 1 SELECT de tarefas a cada 100 projetos
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void batchCreateInsertsTasksInJdbcBatches() throws Exception {
+        int tasks = 1_000;
+        StringBuilder body = new StringBuilder("{\"tasks\":[");
+        for (int i = 0; i < tasks; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"title\":\"Lote ").append(i).append("\",\"status\":\"PLANEJADO\",\"dueDays\":3}");
+        }
+        body.append("]}");
+
+        statistics.clear();
+        mockMvc.perform(post("/api/projects/" + anyProjectId + "/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk());
+
+        // 1 SELECT do projeto + 1 nextval a cada 50 ids + 1 statement por lote de 50 INSERTs
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 2 * (tasks / 50) + 2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(tasks);
+    }
+
+    @Test
+    void writesRunOneConditionalUpdateWithoutReadingFirst() throws Exception {
+        Long taskId = projectRepository.findAllWithTasksByIdIn(List.of(anyProjectId)).get(0).getTasks().get(0).getId();
+
+        // UPDATE da tarefa (devolvendo o estado de antes) e o da versão do projeto: um comando só no
+        // PostgreSQL; no H2, que não aceita UPDATE dentro de WITH, dois na mesma transação
+        Long projectVersion = projectRepository.findById(anyProjectId).orElseThrow().getVersion();
+        statistics.clear();
+        mockMvc.perform(patch("/api/projects/" + anyProjectId + "/tasks/" + taskId + "/status")
+                        .param("status", "FINALIZADO"))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        mockMvc.perform(put("/api/projects/" + anyProjectId + "/tasks/" + taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Editada\",\"status\":\"EM_EXECUCAO\",\"responsible\":\"GBP\"}"))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(projectRepository.findById(anyProjectId).orElseThrow().getVersion()).isEqualTo(projectVersion + 2);
+
+        // UPDATE do projeto devolvendo a linha gravada e o status de antes (no H2, o status vem num
+        // SELECT ... FOR UPDATE antes) + SELECT das tarefas para a resposta
+        int tasks = projectRepository.findAllWithTasksByIdIn(List.of(anyProjectId)).get(0).getTasks().size();
+        statistics.clear();
+        mockMvc.perform(patch("/api/projects/" + anyProjectId + "/status").param("status", "ABORTADO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(tasks));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        statistics.clear();
+        mockMvc.perform(put("/api/projects/" + anyProjectId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Projeto Editado\",\"status\":\"FINALIZADO\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(tasks))
+                .andExpect(jsonPath("$.tasks[*].title").value(hasItem("Editada")));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+
+        // Inexistente: o 404 sai da contagem de linhas do próprio UPDATE, e a versão do projeto não sobe
+        Long versionBefore404 = projectRepository.findById(anyProjectId).orElseThrow().getVersion();
+        statistics.clear();
+        mockMvc.perform(patch("/api/projects/" + Long.MAX_VALUE + "/status").param("status", "ABORTADO"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/projects/" + anyProjectId + "/tasks/" + Long.MAX_VALUE + "/status")
+                        .param("status", "ABORTADO"))
+                .andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(projectRepository.findById(anyProjectId).orElseThrow().getVersion()).isEqualTo(versionBefore404);
+    }
+
+    private void assertStatements(String url, long maxStatements) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQLs executados por GET %s", url)
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}
@@ -0,0 +1,47 @@
+package secretaria.servidor.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.repository.ProjectRepository;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O rastreio de SQL atribui cada statement ao método de repositório e o ranking sai no endpoint de admin.
+ */
+@SpringBootTest(properties = "app.sql-trace.top-threshold=0ms")
+@AutoConfigureMockMvc
+class SlowQueriesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void rankingNamesTheRepositoryMethod() throws Exception {
+        Project project = new Project();
+        project.setName("Projeto Rastreado");
+        project.setStatus(ProjectStatus.PLANEJADO);
+        Long id = projectRepository.save(project).getId();
+
+        mockMvc.perform(delete("/api/admin/slow-queries")).andExpect(status().isNoContent());
+        // Ranking vazio (com vaga) e sem mínimo: qualquer statement entra
+        mockMvc.perform(get("/api/projects/summary/status/PLANEJADO")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].caller", hasItem("ProjectRepository.findSummariesByStatus")))
+                .andExpect(jsonPath("$[*].parameters", hasItem("[PLANEJADO]")));
+    }
+}
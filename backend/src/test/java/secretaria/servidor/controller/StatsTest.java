@@ -0,0 +1,161 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Os contadores do GET /api/stats acompanham as escritas e batem com uma recontagem no banco.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    private Long seededProjectId;
+
+    @BeforeEach
+    void seed() {
+        Project project = new Project();
+        project.setName("Projeto Painel");
+        project.setStatus(ProjectStatus.EM_EXECUCAO);
+        for (TaskResponsible responsible : TaskResponsible.values()) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + responsible);
+            task.setStatus(TaskStatus.PLANEJADO);
+            task.setResponsible(responsible);
+            task.setProject(project);
+            project.getTasks().add(task);
+        }
+        seededProjectId = projectRepository.save(project).getId();
+        // Gravado direto no repositório, sem passar pelos eventos do service
+        statsCounters.rebuild();
+    }
+
+    @Test
+    void writesMoveTheCounters() throws Exception {
+        JsonNode before = stats();
+
+        Long projectId = idOf(mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Projeto Contado\",\"status\":\"PLANEJADO\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        Long taskId = idOf(mockMvc.perform(post("/api/projects/" + projectId + "/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Contar\",\"status\":\"PLANEJADO\",\"responsible\":\"CTB\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        mockMvc.perform(patch("/api/projects/" + projectId + "/tasks/" + taskId + "/status")
+                        .param("status", "EM_EXECUCAO"))
+                .andExpect(status().isOk());
+
+        JsonNode after = stats();
+        assertThat(projects(after, "PLANEJADO") - projects(before, "PLANEJADO")).isEqualTo(1);
+        assertThat(tasks(after, "EM_EXECUCAO", "CTB") - tasks(before, "EM_EXECUCAO", "CTB")).isEqualTo(1);
+        assertThat(tasks(after, "PLANEJADO", "CTB")).isEqualTo(tasks(before, "PLANEJADO", "CTB"));
+
+        mockMvc.perform(put("/api/projects/" + projectId + "/tasks/" + taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Contar\",\"status\":\"FINALIZADO\",\"responsible\":\"GBP\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/projects/" + projectId))
+                .andExpect(status().isNoContent());
+
+        assertThat(stats()).isEqualTo(before);
+    }
+
+    @Test
+    void bulkUpdatesAndCascadeDeleteMatchARecount() throws Exception {
+        JsonNode before = stats();
+
+        mockMvc.perform(patch("/api/projects/" + seededProjectId + "/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentStatus\":\"PLANEJADO\",\"status\":\"ABORTADO\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/projects/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"projectIds\":[" + seededProjectId + "],\"status\":\"FINALIZADO\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/projects/" + seededProjectId + "/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tasks\":[{\"title\":\"A\",\"status\":\"PLANEJADO\",\"responsible\":\"PLO\"},"
+                                + "{\"title\":\"B\",\"status\":\"PLANEJADO\",\"responsible\":\"PLO\"},"
+                                + "{\"title\":\"C\",\"status\":\"FINALIZADO\"}]}"))
+                .andExpect(status().isOk());
+
+        JsonNode after = stats();
+        assertThat(projects(after, "FINALIZADO") - projects(before, "FINALIZADO")).isEqualTo(1);
+        assertThat(projects(before, "EM_EXECUCAO") - projects(after, "EM_EXECUCAO")).isEqualTo(1);
+        for (TaskResponsible responsible : TaskResponsible.values()) {
+            assertThat(tasks(after, "ABORTADO", responsible.name()) - tasks(before, "ABORTADO", responsible.name()))
+                    .isEqualTo(1);
+        }
+        // A tarefa PLO semeada saiu de PLANEJADO e as duas do lote entraram
+        assertThat(tasks(after, "PLANEJADO", "PLO") - tasks(before, "PLANEJADO", "PLO")).isEqualTo(1);
+        assertThat(after.get("totalTasks").asLong() - before.get("totalTasks").asLong()).isEqualTo(3);
+        assertRecountMatches();
+
+        mockMvc.perform(delete("/api/projects/" + seededProjectId))
+                .andExpect(status().isNoContent());
+        assertThat(stats().get("totalTasks").asLong())
+                .isEqualTo(before.get("totalTasks").asLong() - TaskResponsible.values().length);
+        assertRecountMatches();
+    }
+
+    private void assertRecountMatches() throws Exception {
+        JsonNode incremental = stats();
+        statsCounters.rebuild();
+        assertThat(incremental).isEqualTo(stats());
+    }
+
+    private JsonNode stats() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private Long idOf(String json) throws Exception {
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private static long projects(JsonNode stats, String status) {
+        return stats.get("projectsByStatus").get(status).asLong();
+    }
+
+    private static long tasks(JsonNode stats, String status, String responsible) {
+        return stats.get("tasksByStatusAndResponsible").get(status).get(responsible).asLong();
+    }
+}
@@ -0,0 +1,161 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Consulta de tarefas em todos os projetos (GET /api/tasks): combinações de filtros
+ * e paginação por keyset nas duas ordens, sem repetir nem pular tarefas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskQueryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Test
+    void combinesCriteriaAcrossProjects() throws Exception {
+        String marker = marker();
+        List<Task> tasks = new ArrayList<>();
+        tasks.addAll(seedProject(marker, 20));
+        tasks.addAll(seedProject(marker, 20));
+        List<Long> expected = tasks.stream()
+                .filter(task -> task.getResponsible() == TaskResponsible.CTB)
+                .filter(task -> task.getStatus() == TaskStatus.EM_EXECUCAO)
+                .filter(task -> task.getDueDays() != null && task.getDueDays() < 7)
+                .map(Task::getId)
+                .sorted()
+                .toList();
+        assertThat(expected).isNotEmpty();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/tasks")
+                        .param("title", marker.toUpperCase())
+                        .param("responsible", "CTB")
+                        .param("status", "EM_EXECUCAO")
+                        .param("dueDaysTo", "6"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        JsonNode page = objectMapper.readTree(response.getContentAsString());
+        assertThat(ids(page)).isEqualTo(expected);
+        assertThat(response.getHeader(ProjectController.NEXT_CURSOR_HEADER)).isNull();
+        assertThat(page.get(0).get("projectId").isNumber()).isTrue();
+    }
+
+    @Test
+    void pagesThroughAProjectInBothOrders() throws Exception {
+        List<Task> tasks = seedProject(marker(), 23);
+        Long projectId = tasks.get(0).getProject().getId();
+
+        List<Long> byId = tasks.stream().map(Task::getId).sorted().toList();
+        assertThat(walk(Map.of("projectId", projectId.toString()))).isEqualTo(byId);
+
+        // Por prazo, as tarefas sem prazo no fim (por id)
+        List<Long> byDueDays = tasks.stream()
+                .sorted(Comparator.comparing(Task::getDueDays, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+        assertThat(walk(Map.of("projectId", projectId.toString(), "sort", "dueDays"))).isEqualTo(byDueDays);
+    }
+
+    @Test
+    void rejectsInvalidQueries() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("dueDaysFrom", "10").param("dueDaysTo", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks").param("sort", "title"))
+                .andExpect(status().isBadRequest());
+
+        seedProject(marker(), 3);
+        String idCursor = mockMvc.perform(get("/api/tasks").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ProjectController.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/api/tasks").param("sort", "dueDays").param("cursor", idCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Percorre todas as páginas (de 4) e devolve os ids na ordem recebida.
+     */
+    private List<Long> walk(Map<String, String> params) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks").param("size", "4");
+            params.forEach(request::param);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            ids.addAll(ids(objectMapper.readTree(response.getContentAsString())));
+            cursor = response.getHeader(ProjectController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Task> seedProject(String marker, int tasks) {
+        Project project = new Project();
+        project.setName("Projeto Consultado");
+        project.setStatus(ProjectStatus.EM_EXECUCAO);
+        TaskResponsible[] responsibles = TaskResponsible.values();
+        TaskStatus[] statuses = TaskStatus.values();
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + marker + " " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setResponsible(responsibles[i % 3 == 0 ? 2 : i % responsibles.length]);
+            task.setDueDays(i % 5 == 0 ? null : i % 9);
+            task.setProject(project);
+            project.getTasks().add(task);
+        }
+        List<Task> saved = projectRepository.save(project).getTasks();
+        // Gravado direto no repositório, sem passar pelos eventos do service
+        statsCounters.rebuild();
+        return saved;
+    }
+
+    private static String marker() {
+        return "consulta-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.forEach(task -> ids.add(task.get("id").asLong()));
+        return ids;
+    }
+}
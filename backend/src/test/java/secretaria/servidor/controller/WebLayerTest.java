@@ -0,0 +1,119 @@
+package secretaria.servidor.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import secretaria.servidor.dto.ProjectDTO;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.Task;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskStatus;
+import secretaria.servidor.repository.ProjectRepository;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Camada HTTP do Spring Boot: ObjectMapper do Boot (com Blackbird) nos conversores,
+ * gzip acima do tamanho mínimo e HTTP/2 (h2c).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebLayerTest {
+
+    private static final int PROJECTS = 30;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Long anyProjectId;
+
+    @BeforeEach
+    void seed() {
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setName("Projeto Comprimido " + i);
+            project.setDescription("Descrição longa o bastante para a listagem passar do tamanho mínimo de compressão.");
+            project.setStatus(ProjectStatus.PLANEJADO);
+            Task task = new Task();
+            task.setTitle("Tarefa do projeto " + i);
+            task.setStatus(TaskStatus.PLANEJADO);
+            task.setProject(project);
+            project.getTasks().add(task);
+            projects.add(project);
+        }
+        anyProjectId = projectRepository.saveAll(projects).get(0).getId();
+    }
+
+    @Test
+    void httpConvertersUseBootObjectMapperWithBlackbird() {
+        assertThat(objectMapper.getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+        // O primeiro conversor que aceita o DTO é o que escreve as respostas
+        HttpMessageConverter<?> converter = handlerAdapter.getMessageConverters().stream()
+                .filter(candidate -> candidate.canWrite(ProjectDTO.class, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+        assertThat(converter).isInstanceOf(MappingJackson2HttpMessageConverter.class);
+        assertThat(((MappingJackson2HttpMessageConverter) converter).getObjectMapper().getRegisteredModuleIds())
+                .contains(new BlackbirdModule().getTypeId());
+    }
+
+    @Test
+    void largeResponsesAreGzipped() throws Exception {
+        HttpResponse<byte[]> list = get(HttpClient.Version.HTTP_1_1, "/api/projects?size=" + PROJECTS, "gzip");
+        assertThat(list.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(list.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/"));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(list.body()))) {
+            JsonNode page = objectMapper.readTree(body);
+            assertThat(page.isArray()).isTrue();
+            assertThat(page.size()).isEqualTo(PROJECTS);
+        }
+
+        HttpResponse<byte[]> single = get(HttpClient.Version.HTTP_1_1, "/api/projects/" + anyProjectId, "gzip");
+        assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    void servesHttp2OverCleartextUpgrade() throws Exception {
+        HttpResponse<byte[]> response = get(HttpClient.Version.HTTP_2, "/api/projects/" + anyProjectId, "identity");
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+
+    private HttpResponse<byte[]> get(HttpClient.Version version, String path, String acceptEncoding) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(version).build();
+        HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Accept-Encoding", acceptEncoding)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+}
@@ -0,0 +1,52 @@
+package secretaria.servidor.exception;
+
+import org.apache.catalina.connector.ClientAbortException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Só a desconexão do cliente é engolida; outras IOException continuam sendo 500.
+ */
+class ApiExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new ApiExceptionHandler())
+            .build();
+
+    @Test
+    void otherIOExceptionsAreInternalErrors() throws Exception {
+        mockMvc.perform(get("/io"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Ocorreu um erro interno. disco cheio"));
+    }
+
+    @Test
+    void clientDisconnectHasNoBody() throws Exception {
+        mockMvc.perform(get("/abort"))
+                .andExpect(content().string(""));
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/io")
+        String io() throws IOException {
+            throw new IOException("disco cheio");
+        }
+
+        @GetMapping("/abort")
+        String abort() throws IOException {
+            throw new ClientAbortException("conexão fechada");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package secretaria.servidor.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latências e status das respostas de uma operação durante a janela medida.
+ * Os 429 dos bulkheads contam à parte (recusas), fora das latências.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long rejected;
+    private long skipped;
+    private final Map<Integer, Long> unexpected = new TreeMap<>();
+    private Duration elapsed = Duration.ZERO;
+
+    synchronized void record(long latencyNanos, int status, boolean expected) {
+        if (status == 429) {
+            rejected++;
+            return;
+        }
+        if (!expected) {
+            unexpected.merge(status, 1L, Long::sum);
+        }
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    /**
+     * Todas as medidas juntas (a linha total do relatório).
+     */
+    static LatencyRecorder merge(Collection<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            synchronized (recorder) {
+                merged.latencies = Arrays.copyOf(merged.latencies, merged.count + recorder.count);
+                System.arraycopy(recorder.latencies, 0, merged.latencies, merged.count, recorder.count);
+                merged.count += recorder.count;
+                merged.rejected += recorder.rejected;
+                merged.skipped += recorder.skipped;
+                recorder.unexpected.forEach((status, n) -> merged.unexpected.merge(status, n, Long::sum));
+                merged.elapsed = recorder.elapsed;
+            }
+        }
+        return merged;
+    }
+
+    synchronized void recordSkipped() {
+        skipped++;
+    }
+
+    synchronized void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    synchronized LoadReport.OperationStats stats() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        long errors = unexpected.values().stream().mapToLong(Long::longValue).sum();
+        return new LoadReport.OperationStats(
+                count,
+                elapsed.isZero() ? 0 : round(count / (elapsed.toMillis() / 1000.0)),
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)),
+                millis(count == 0 ? 0 : sorted[count - 1]),
+                errors,
+                rejected,
+                skipped,
+                Map.copyOf(unexpected));
+    }
+
+    /**
+     * Percentil pelo método nearest-rank.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round((double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,138 @@
+package secretaria.servidor.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições saem numa taxa fixa (rate por segundo),
+ * respondam ou não as anteriores, e a latência é contada a partir do instante em que cada uma
+ * deveria ter saído. Assim a fila que se forma quando o servidor não dá conta entra na medida,
+ * em vez de o gerador simplesmente desacelerar junto (coordinated omission).
+ *
+ * As operações se intercalam por peso (round-robin ponderado suave), então cada uma também
+ * chega numa taxa fixa: rate × peso / soma dos pesos. Só o que sai depois do aquecimento é medido.
+ */
+class LoadGenerator {
+
+    /**
+     * Uma rota da mistura. onBody recebe o corpo das respostas esperadas (nulo: o corpo é descartado).
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request, Set<Integer> expectedStatus,
+                     Consumer<String> onBody) {
+    }
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final double rate;
+
+    LoadGenerator(HttpClient client, List<Operation> operations, double rate) {
+        this.client = client;
+        this.operations = operations;
+        this.rate = rate;
+    }
+
+    /**
+     * Roda warmup + duration e devolve as medidas por operação (na ordem da mistura).
+     */
+    Map<String, LatencyRecorder> run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        operations.forEach(operation -> recorders.put(operation.name(), new LatencyRecorder()));
+        WeightedSchedule schedule = new WeightedSchedule(operations);
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule.next();
+            LatencyRecorder recorder = intended >= measureFrom ? recorders.get(operation.name()) : null;
+            pending.add(send(operation, intended, recorder));
+            pending.removeIf(CompletableFuture::isDone);
+        }
+        for (LatencyRecorder recorder : recorders.values()) {
+            recorder.setElapsed(duration);
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Requisições ainda pendentes 60 s depois do fim da carga", e);
+        }
+        return recorders;
+    }
+
+    private CompletableFuture<?> send(Operation operation, long intended, LatencyRecorder recorder) {
+        HttpRequest request;
+        try {
+            request = operation.request().get();
+        } catch (RuntimeException e) {
+            // Sem dado para montar a requisição (ex.: nada criado ainda para excluir)
+            if (recorder != null) {
+                recorder.recordSkipped();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long latency = System.nanoTime() - intended;
+                    int status = response != null ? response.statusCode() : -1;
+                    boolean expected = operation.expectedStatus().contains(status);
+                    if (expected && operation.onBody() != null) {
+                        operation.onBody().accept(response.body());
+                    }
+                    if (recorder != null) {
+                        recorder.record(latency, status, expected);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Round-robin ponderado suave (o do nginx): distribui as operações de cada peso de forma
+     * uniforme ao longo da sequência, em vez de em rajadas.
+     */
+    private static final class WeightedSchedule {
+
+        private final List<Operation> operations;
+        private final int[] current;
+        private final int total;
+
+        private WeightedSchedule(List<Operation> operations) {
+            this.operations = operations;
+            this.current = new int[operations.size()];
+            this.total = operations.stream().mapToInt(Operation::weight).sum();
+        }
+
+        private Operation next() {
+            int best = 0;
+            for (int i = 0; i < current.length; i++) {
+                current[i] += operations.get(i).weight();
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            return operations.get(best);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package secretaria.servidor.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultado de uma rodada de carga (e o formato da linha de base, ver {@link LoadTest}).
+ * Latências em ms, vazão em respostas por segundo.
+ */
+record LoadReport(Settings settings, Map<String, OperationStats> operations) {
+
+    /**
+     * Linha com todas as operações juntas.
+     */
+    static final String TOTAL = "total";
+
+    /**
+     * Um percentil só é comparado com pelo menos tantas amostras acima dele nas duas rodadas
+     * (p50 a partir de 20 respostas, p95 de 200, p99 de 1.000): com menos, ele é praticamente
+     * o max e varia de uma rodada para outra mais que qualquer limite razoável.
+     */
+    private static final double MIN_TAIL_SAMPLES = 10;
+
+    record Settings(double rate, long warmupSeconds, long durationSeconds, int projects, int tasksPerProject,
+                    String machine) {
+    }
+
+    record OperationStats(long count, double throughput, double p50, double p95, double p99, double max,
+                          long errors, long rejected, long skipped, Map<Integer, Long> unexpectedStatus) {
+    }
+
+    static LoadReport of(Settings settings, Map<String, LatencyRecorder> recorders) {
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> operations.put(name, recorder.stats()));
+        operations.put(TOTAL, LatencyRecorder.merge(recorders.values()).stats());
+        return new LoadReport(settings, operations);
+    }
+
+    /**
+     * Pioras em relação à linha de base: p50, p95 ou p99 acima de (1 + maxRegression) vezes o da base
+     * e pelo menos minDeltaMillis mais lentos (abaixo disso é ruído), ou vazão abaixo de
+     * (1 - maxRegression) vezes a da base (respostas que viraram 429). O max não entra: uma pausa
+     * de GC já o muda. Por operação costumam entrar o p50 e o p95; o p99, só no total.
+     */
+    List<String> regressionsAgainst(LoadReport baseline, double maxRegression, double minDeltaMillis) {
+        List<String> regressions = new ArrayList<>();
+        baseline.operations().forEach((name, before) -> {
+            OperationStats now = operations.get(name);
+            if (now == null) {
+                return;
+            }
+            long samples = Math.min(before.count(), now.count());
+            if (samples * 0.50 >= MIN_TAIL_SAMPLES) {
+                checkLatency(regressions, name, "p50", before.p50(), now.p50(), maxRegression, minDeltaMillis);
+            }
+            if (samples * 0.05 >= MIN_TAIL_SAMPLES) {
+                checkLatency(regressions, name, "p95", before.p95(), now.p95(), maxRegression, minDeltaMillis);
+            }
+            if (samples * 0.01 >= MIN_TAIL_SAMPLES) {
+                checkLatency(regressions, name, "p99", before.p99(), now.p99(), maxRegression, minDeltaMillis);
+            }
+            if (now.throughput() < before.throughput() * (1 - maxRegression)) {
+                regressions.add(String.format(Locale.ROOT, "%s: vazão %.2f/s contra %.2f/s na base",
+                        name, now.throughput(), before.throughput()));
+            }
+        });
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String name, String percentile,
+                                     double before, double now, double maxRegression, double minDeltaMillis) {
+        if (now > before * (1 + maxRegression) && now - before >= minDeltaMillis) {
+            regressions.add(String.format(Locale.ROOT, "%s: %s %.2f ms contra %.2f ms na base (+%.0f%%)",
+                    name, percentile, now, before, (now / before - 1) * 100));
+        }
+    }
+
+    /**
+     * Tabela legível para o log do teste.
+     */
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-24s %8s %9s %9s %9s %9s %9s %7s %7s%n",
+                "operação", "n", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "erros", "429"));
+        operations.forEach((name, stats) -> table.append(String.format(Locale.ROOT,
+                "%-24s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                name, stats.count(), stats.throughput(), stats.p50(), stats.p95(), stats.p99(), stats.max(),
+                stats.errors(), stats.rejected())));
+        return table.toString();
+    }
+}
@@ -0,0 +1,355 @@
+package secretaria.servidor.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import secretaria.servidor.dto.PageCursor;
+import secretaria.servidor.service.search.ProjectSearchIndex;
+import secretaria.servidor.service.stats.StatsCounters;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Teste de carga HTTP de ponta a ponta: sobe a aplicação numa porta aleatória com H2 em memória,
+ * carrega load.projects projetos com load.tasks-per-project tarefas cada e passa por todas as rotas
+ * de projetos e tarefas (mais a consulta de tarefas) numa mistura de leituras e escritas, em taxa fixa
+ * ({@link LoadGenerator}). Imprime p50/p95/p99/max e vazão por rota, grava o relatório em
+ * target/load-report.json e falha se alguma rota piorou mais que load.max-regression em relação à
+ * linha de base (load.baseline, padrão target/load-baseline.json), se houve resposta inesperada ou 429 demais
+ * (conferidos à parte). Os bulkheads têm limites fixos aqui, com fila folgada: a espera conta como latência.
+ *
+ * Fora do mvn test normal; rodar com {@code mvn -Pload test}. A linha de base depende da máquina e não
+ * fica no repositório: a primeira rodada sem ela a grava (ou {@code -Dload.update-baseline=true}), e ela
+ * leva a chave da máquina (load.machine, padrão SO, CPUs, heap e Java); com outra chave, a comparação é pulada.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // O log por requisição dos services no console viraria o gargalo da medida
+        "logging.level.secretaria.servidor=WARN",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        // Bulkheads fixos e com fila folgada: a espera entra na latência medida em vez de virar 429, e o
+        // limite não muda com a latência nem com os padrões da aplicação (que são ajustados por instalação)
+        "app.bulkhead.latency-tolerance=0",
+        "app.bulkhead.bulk.max-concurrent=4",
+        "app.bulkhead.bulk.max-queue=500",
+        "app.bulkhead.bulk.max-wait=30s",
+        "app.bulkhead.read.max-concurrent=16",
+        "app.bulkhead.read.max-queue=500",
+        "app.bulkhead.read.max-wait=30s",
+        "app.bulkhead.write.max-concurrent=8",
+        "app.bulkhead.write.max-queue=500",
+        "app.bulkhead.write.max-wait=30s"})
+class LoadTest {
+
+    private static final Path REPORT = Path.of("target/load-report.json");
+    private static final Set<Integer> OK = Set.of(200);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<Long> createdProjects = new ConcurrentLinkedQueue<>();
+    private final Queue<long[]> createdTasks = new ConcurrentLinkedQueue<>();
+
+    private int projects;
+    private int tasksPerProject;
+
+    @Test
+    void mixedTrafficStaysWithinBaseline() throws Exception {
+        projects = environment.getProperty("load.projects", Integer.class, 1000);
+        tasksPerProject = environment.getProperty("load.tasks-per-project", Integer.class, 10);
+        double rate = environment.getProperty("load.rate", Double.class, 40.0);
+        Duration warmup = environment.getProperty("load.warmup", Duration.class, Duration.ofSeconds(30));
+        Duration duration = environment.getProperty("load.duration", Duration.class, Duration.ofSeconds(60));
+        seed();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<String, LatencyRecorder> recorders = new LoadGenerator(client, operations(), rate).run(warmup, duration);
+        LoadReport report = LoadReport.of(new LoadReport.Settings(rate, warmup.toSeconds(), duration.toSeconds(),
+                projects, tasksPerProject, environment.getProperty("load.machine", machine())), recorders);
+
+        log.warn("Carga de {} req/s por {} s ({} projetos x {} tarefas):\n{}",
+                rate, duration.toSeconds(), projects, tasksPerProject, report.toTable());
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writeValue(REPORT.toFile(), report);
+
+        // Respostas inesperadas e 429 são conferidas à parte da comparação com a linha de base: uma não esconde a outra
+        SoftAssertions softly = new SoftAssertions();
+        report.operations().forEach((name, stats) -> {
+            softly.assertThat(stats.unexpectedStatus()).as("respostas inesperadas em %s", name).isEmpty();
+            softly.assertThat(stats.rejected())
+                    .as("429 em %s", name)
+                    .isLessThanOrEqualTo((long) (stats.count() * environment.getProperty(
+                            "load.max-rejected-ratio", Double.class, 0.01)));
+        });
+
+        Path baselinePath = Path.of(environment.getProperty("load.baseline", "target/load-baseline.json"));
+        if (environment.getProperty("load.update-baseline", Boolean.class, false) || !Files.exists(baselinePath)) {
+            Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+            objectMapper.writeValue(baselinePath.toFile(), report);
+            log.warn("Linha de base gravada em {}", baselinePath.toAbsolutePath());
+            softly.assertAll();
+            return;
+        }
+        LoadReport baseline = objectMapper.readValue(baselinePath.toFile(), LoadReport.class);
+        if (baseline.settings().equals(report.settings())) {
+            softly.assertThat(report.regressionsAgainst(baseline,
+                    environment.getProperty("load.max-regression", Double.class, 1.0),
+                    environment.getProperty("load.min-regression-ms", Double.class, 10.0)))
+                    .as("pioras em relação a %s", baselinePath)
+                    .isEmpty();
+        }
+        softly.assertAll();
+        Assumptions.assumeTrue(baseline.settings().equals(report.settings()),
+                "Linha de base gravada com outros parâmetros ou em outra máquina: " + baseline.settings());
+    }
+
+    /**
+     * Chave da máquina gravada com a linha de base: as latências só são comparáveis no mesmo
+     * hardware e na mesma JVM.
+     */
+    private static String machine() {
+        Runtime runtime = Runtime.getRuntime();
+        return String.format(Locale.ROOT, "%s %s, %d CPUs, %d MB heap, Java %s",
+                System.getProperty("os.name"), System.getProperty("os.arch"), runtime.availableProcessors(),
+                runtime.maxMemory() / (1024 * 1024), System.getProperty("java.version"));
+    }
+
+    /**
+     * Massa direto no banco (ids 1..n, como no RepositoryQueryPlanTest), sequences depois dela
+     * e os índices em memória recarregados.
+     */
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO project (id, name, description, start_date, end_date, team_responsible, status, version)
+                SELECT x, 'Projeto Carga ' || x, 'Descrição do projeto ' || x, DATE '2030-01-01', DATE '2030-12-31',
+                       CASEWHEN(MOD(x, 3) = 0, 'ADMFIN', CASEWHEN(MOD(x, 3) = 1, 'ADMPLN', 'ADMAPO')),
+                       CASEWHEN(MOD(x, 4) = 0, 'PLANEJADO', CASEWHEN(MOD(x, 4) = 1, 'EM_EXECUCAO',
+                       CASEWHEN(MOD(x, 4) = 2, 'ABORTADO', 'FINALIZADO'))), 0
+                FROM (SELECT "X" AS x FROM SYSTEM_RANGE(1, ?)) r""", projects);
+        jdbcTemplate.update("""
+                INSERT INTO task (id, title, description, responsible, due_days, status, version, project_id)
+                SELECT x, 'Tarefa ' || x, 'Descrição da tarefa ' || x,
+                       CASEWHEN(MOD(x, 4) = 0, 'PLO', CASEWHEN(MOD(x, 4) = 1, 'GFU', CASEWHEN(MOD(x, 4) = 2, 'CTB', 'GBP'))),
+                       CASEWHEN(MOD(x, 7) = 0, NULL, MOD(x, 30)),
+                       CASEWHEN(MOD(x, 5) < 2, 'PLANEJADO', CASEWHEN(MOD(x, 5) < 4, 'EM_EXECUCAO', 'FINALIZADO')),
+                       0, (x - 1) / ? + 1
+                FROM (SELECT "X" AS x FROM SYSTEM_RANGE(1, ?)) r""", tasksPerProject, projects * tasksPerProject);
+        // Os ids do Hibernate saem em blocos de 50 a partir da sequence: começa bem depois da massa
+        jdbcTemplate.execute("ALTER SEQUENCE project_id_seq RESTART WITH " + (projects + 101));
+        jdbcTemplate.execute("ALTER SEQUENCE task_id_seq RESTART WITH " + ((long) projects * tasksPerProject + 101));
+        jdbcTemplate.execute("ANALYZE");
+        statsCounters.rebuild();
+        projectSearchIndex.rebuild();
+    }
+
+    /**
+     * A mistura: pesos por rota (cerca de 2/3 leituras e 1/3 escritas).
+     * As escritas pontuais mexem na massa carregada; as exclusões só apagam o que a carga criou.
+     */
+    private List<LoadGenerator.Operation> operations() {
+        return List.of(
+                // ProjectController
+                operation("listProjects", 8, () -> get("/api/projects?size=20&cursor=" + PageCursor.encode(anyProject() - 1))),
+                operation("listProjectsByStatus", 3, () -> get("/api/projects?status=" + anyStatus() + "&size=20")),
+                operation("projectSummaries", 4, () -> get("/api/projects/summary?size=50")),
+                operation("summarySearch", 3, () -> get("/api/projects/summary/search?name=Carga%20" + anyProject())),
+                operation("summariesByStatus", 1, () -> get("/api/projects/summary/status/" + anyStatus())),
+                operation("searchByName", 3, () -> get("/api/projects/search?name=carga%20" + anyProject())),
+                operation("projectsByStatus", 1, () -> get("/api/projects/status/" + anyStatus())),
+                operation("exportProjects", 1, () -> get("/api/projects/export")),
+                operation("getProject", 16, () -> get("/api/projects/" + anyProject())),
+                operation("createProject", 3, () -> send("POST", "/api/projects", newProject()), OK,
+                        body -> createdProjects.add(id(body))),
+                operation("updateProject", 3, () -> send("PUT", "/api/projects/" + anyProject(), newProject())),
+                operation("updateProjectStatus", 3, () -> send("PATCH",
+                        "/api/projects/" + anyProject() + "/status?status=" + anyStatus(), null)),
+                operation("updateProjectStatuses", 1, () -> {
+                    long first = anyProject();
+                    return send("PATCH", "/api/projects/status", Map.of(
+                            "projectIds", List.of(first, first % projects + 1, (first + 1) % projects + 1),
+                            "status", anyStatus()));
+                }),
+                operation("deleteProject", 1, () -> send("DELETE", "/api/projects/" + poll(createdProjects), null),
+                        Set.of(204), null),
+                operation("deleteProjectAsync", 1, () -> send("DELETE",
+                        "/api/projects/" + poll(createdProjects) + "?async=true", null), Set.of(202), null),
+                operation("importProjects", 1, () -> HttpRequest.newBuilder(uri("/api/projects/import"))
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofString(importCsv()))
+                        .build(), Set.of(202), null),
+
+                // TaskController
+                operation("listTasks", 10, () -> get("/api/projects/" + anyProject() + "/tasks")),
+                operation("createTask", 4, () -> {
+                    long projectId = anyProject();
+                    return send("POST", "/api/projects/" + projectId + "/tasks", newTask());
+                }, OK, body -> createdTasks.add(new long[]{projectIdOf(body), id(body)})),
+                operation("createTasks", 1, () -> send("POST", "/api/projects/" + anyProject() + "/tasks/batch",
+                        Map.of("tasks", List.of(newTask(), newTask(), newTask(), newTask(), newTask())))),
+                operation("updateTask", 4, () -> {
+                    long taskId = anyTask();
+                    return send("PUT", "/api/projects/" + projectOf(taskId) + "/tasks/" + taskId, newTask());
+                }),
+                operation("updateTaskStatus", 5, () -> {
+                    long taskId = anyTask();
+                    return send("PATCH", "/api/projects/" + projectOf(taskId) + "/tasks/" + taskId
+                            + "/status?status=" + anyTaskStatus(), null);
+                }),
+                operation("updateTaskStatuses", 2, () -> {
+                    long taskId = anyTask();
+                    return send("PATCH", "/api/projects/" + projectOf(taskId) + "/tasks/status",
+                            Map.of("taskIds", List.of(taskId), "status", anyTaskStatus()));
+                }),
+                operation("deleteTask", 2, () -> {
+                    long[] task = poll(createdTasks);
+                    return send("DELETE", "/api/projects/" + task[0] + "/tasks/" + task[1], null);
+                }, Set.of(204), null),
+
+                // TaskQueryController
+                operation("queryTasks", 4, () -> get("/api/tasks?responsible=CTB&status=EM_EXECUCAO&dueDaysTo=7&size=50")));
+    }
+
+    private LoadGenerator.Operation operation(String name, int weight, Supplier<HttpRequest> request) {
+        return operation(name, weight, request, OK, null);
+    }
+
+    private LoadGenerator.Operation operation(String name, int weight, Supplier<HttpRequest> request,
+                                              Set<Integer> expected, Consumer<String> onBody) {
+        return new LoadGenerator.Operation(name, weight, request, expected, onBody);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private Map<String, Object> newProject() {
+        long n = sequence.incrementAndGet();
+        return Map.of(
+                "name", "Projeto Novo " + n,
+                "description", "Criado pelo teste de carga",
+                "startDate", LocalDate.now().plusDays(1).toString(),
+                "endDate", LocalDate.now().plusDays(90).toString(),
+                "teamResponsible", "ADMPLN",
+                "status", "PLANEJADO");
+    }
+
+    private Map<String, Object> newTask() {
+        long n = sequence.incrementAndGet();
+        return Map.of(
+                "title", "Tarefa Nova " + n,
+                "description", "Criada pelo teste de carga",
+                "responsible", List.of("PLO", "GFU", "CTB", "GBP").get((int) (n % 4)),
+                "dueDays", (int) (n % 30),
+                "status", "PLANEJADO");
+    }
+
+    private String importCsv() {
+        long n = sequence.incrementAndGet();
+        return """
+                project_name,project_description,start_date,end_date,team_responsible,project_status,task_title,task_description,task_responsible,task_due_days,task_status
+                Importado %1$d,Carga,2030-01-01,2030-06-01,ADMPLN,PLANEJADO,Primeira,,PLO,5,PLANEJADO
+                Importado %1$d,,,,,,Segunda,,GFU,10,EM_EXECUCAO
+                """.formatted(n);
+    }
+
+    private long anyProject() {
+        return ThreadLocalRandom.current().nextLong(1, projects + 1);
+    }
+
+    private long anyTask() {
+        return ThreadLocalRandom.current().nextLong(1, (long) projects * tasksPerProject + 1);
+    }
+
+    private long projectOf(long taskId) {
+        return (taskId - 1) / tasksPerProject + 1;
+    }
+
+    private static String anyStatus() {
+        return List.of("PLANEJADO", "EM_EXECUCAO", "ABORTADO", "FINALIZADO").get(ThreadLocalRandom.current().nextInt(4));
+    }
+
+    private static String anyTaskStatus() {
+        return anyStatus();
+    }
+
+    private static <T> T poll(Queue<T> queue) {
+        T item = queue.poll();
+        if (item == null) {
+            throw new IllegalStateException("Nada criado ainda");
+        }
+        return item;
+    }
+
+    private long id(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long projectIdOf(String body) {
+        try {
+            return objectMapper.readTree(body).get("projectId").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package secretaria.servidor.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setContext(context);
+        filter.setLogger("secretaria.servidor.service.TaskService");
+        filter.setRate(10);
+        filter.start();
+    }
+
+    @Test
+    void letsOneInRateThrough() {
+        Logger logger = context.getLogger("secretaria.servidor.service.TaskService");
+
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(logger, Level.INFO, "Atualizando tarefa ID: {}") == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertThat(passed).isEqualTo(10);
+    }
+
+    @Test
+    void neverSamplesWarningsOtherLoggersOrLevelChecks() {
+        Logger sampled = context.getLogger("secretaria.servidor.service.TaskService");
+        Logger sibling = context.getLogger("secretaria.servidor.service.TaskServiceHelper");
+        decide(sampled, Level.INFO, "primeira passa");
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(decide(sampled, Level.WARN, "aviso")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(sibling, Level.INFO, "outro logger")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(sampled, Level.INFO, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+        assertThat(decide(sampled, Level.INFO, "segunda é descartada")).isEqualTo(FilterReply.DENY);
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
@@ -0,0 +1,89 @@
+package secretaria.servidor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final SlowQueryLog log = new SlowQueryLog(2, Duration.ofMinutes(10), Duration.ofMillis(5), clock);
+
+    @Test
+    void keepsTheSlowestExecutionPerSql() {
+        record("select a", 30);
+        record("select a", 10);
+        record("select a", 50);
+
+        assertThat(log.snapshot()).singleElement()
+                .satisfies(query -> assertThat(query.elapsedMillis()).isEqualTo(50));
+    }
+
+    @Test
+    void fullRankingOnlyAcceptsSlowerQueries() {
+        record("select a", 30);
+        record("select b", 10);
+
+        assertThat(log.accepts(10)).isFalse();
+        assertThat(log.accepts(11)).isTrue();
+        record("select c", 20);
+
+        assertThat(log.snapshot()).extracting(SlowQueryLog.SlowQuery::sql).containsExactly("select a", "select c");
+    }
+
+    @Test
+    void entriesExpireAfterTheWindow() {
+        record("select a", 300);
+        record("select b", 200);
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(log.accepts(5)).isTrue();
+        record("select c", 5);
+
+        assertThat(log.snapshot()).extracting(SlowQueryLog.SlowQuery::sql).containsExactly("select c");
+    }
+
+    @Test
+    void executionsBelowTheThresholdNeverEnter() {
+        assertThat(log.accepts(4)).isFalse();
+        log.record("select a", 4, () -> "Teste.record", () -> "[]");
+        record("select b", 5);
+
+        assertThat(log.snapshot()).extracting(SlowQueryLog.SlowQuery::sql).containsExactly("select b");
+    }
+
+    private void record(String sql, long elapsedMillis) {
+        if (log.accepts(elapsedMillis)) {
+            log.record(sql, elapsedMillis, () -> "Teste.record", () -> "[]");
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
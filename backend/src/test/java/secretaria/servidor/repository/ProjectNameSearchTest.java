@@ -0,0 +1,50 @@
+package secretaria.servidor.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import secretaria.servidor.entity.Project;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.repository.projection.ProjectSummary;
+import secretaria.servidor.service.search.TextNormalizer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca por nome no banco (usada enquanto o índice em memória não carregou): ignora acentos
+ * e caixa como o índice, com o termo normalizado por {@link TextNormalizer}.
+ */
+@SpringBootTest
+class ProjectNameSearchTest {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Test
+    void ignoresAccentsAndCaseLikeTheIndex() {
+        Project accented = projectRepository.save(project("Licitação de Pavimentação em Jaçanã"));
+        Project plain = projectRepository.save(project("LICITACAO DE PAVIMENTACAO EM JACANA II"));
+
+        for (String query : List.of("pavimentação em jaçanã", "PAVIMENTACAO EM JACANA", "Pavimentacão em Jaçana")) {
+            String term = TextNormalizer.normalize(query);
+            assertThat(projectRepository.findIdsByName(term, Limit.of(10)))
+                    .containsExactly(accented.getId(), plain.getId());
+            assertThat(projectRepository.findSummariesByName(term, Limit.of(10)))
+                    .extracting(ProjectSummary::getId)
+                    .containsExactly(accented.getId(), plain.getId());
+        }
+    }
+
+    private static Project project(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setStartDate(LocalDate.of(2025, 1, 1));
+        project.setEndDate(LocalDate.of(2025, 12, 31));
+        project.setStatus(ProjectStatus.PLANEJADO);
+        return project;
+    }
+}
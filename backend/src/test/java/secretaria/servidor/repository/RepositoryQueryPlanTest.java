@@ -0,0 +1,301 @@
+package secretaria.servidor.repository;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import secretaria.servidor.entity.enums.ProjectStatus;
+import secretaria.servidor.entity.enums.TaskResponsible;
+import secretaria.servidor.entity.enums.TaskStatus;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roda cada método dos repositórios sobre uma massa grande, captura os SQLs que o Hibernate
+ * gerou (com os parâmetros) e confere o EXPLAIN de cada um: nenhum pode varrer a tabela inteira.
+ * Os planos são os do H2; as migrações e os índices são os mesmos do PostgreSQL.
+ *
+ * Contexto próprio (o pool com outro nome muda a configuração), então o banco em memória
+ * também é só deste teste e a massa grande não aparece nos demais.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.pool-name=query-plans")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final int PROJECTS = 20_000;
+    private static final int TASKS_PER_PROJECT = 5;
+
+    /**
+     * Métodos que leem a tabela toda de propósito (e por isso ficam fora da checagem).
+     */
+    private static final Map<String, String> FULL_SCANS = Map.of(
+            "streamAllNames", "carga do índice de busca em memória",
+            "streamAll", "exportação completa",
+            "countByStatus", "carga dos contadores do painel",
+            "countByStatusAndResponsible", "carga dos contadores do painel",
+            "findIdsByName", "LIKE '%termo%': no PostgreSQL usa o GIN de trigramas (V7), no H2 não há equivalente",
+            "findSummariesByName", "LIKE '%termo%': no PostgreSQL usa o GIN de trigramas (V7), no H2 não há equivalente");
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<CapturedStatement> captured = new ArrayList<>();
+
+    private record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    @BeforeAll
+    void loadFixture() {
+        jdbcTemplate.update("""
+                INSERT INTO project (id, name, description, start_date, end_date, team_responsible, status, version)
+                SELECT x, 'Projeto ' || x, 'Descrição ' || x, DATE '2025-01-01', DATE '2025-12-31', 'ADMFIN',
+                       CASEWHEN(MOD(x, 4) = 0, 'PLANEJADO', CASEWHEN(MOD(x, 4) = 1, 'EM_EXECUCAO',
+                       CASEWHEN(MOD(x, 4) = 2, 'ABORTADO', 'FINALIZADO'))), 0
+                FROM (SELECT "X" AS x FROM SYSTEM_RANGE(1, ?)) r""", PROJECTS);
+        jdbcTemplate.update("""
+                INSERT INTO task (id, title, responsible, due_days, status, version, project_id)
+                SELECT x, 'Tarefa ' || x, CASEWHEN(MOD(x, 2) = 0, 'PLO', 'GFU'), 5,
+                       CASEWHEN(MOD(x, 4) = 0, 'PLANEJADO', CASEWHEN(MOD(x, 4) = 1, 'EM_EXECUCAO',
+                       CASEWHEN(MOD(x, 4) = 2, 'ABORTADO', 'FINALIZADO'))), 0, (x - 1) / ? + 1
+                FROM (SELECT "X" AS x FROM SYSTEM_RANGE(1, ?)) r""", TASKS_PER_PROJECT, PROJECTS * TASKS_PER_PROJECT);
+        jdbcTemplate.execute("ANALYZE");
+
+        ((ProxyDataSource) dataSource).addListener(new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                for (QueryInfo query : queryInfoList) {
+                    List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                    captured.add(new CapturedStatement(query.getQuery(),
+                            parameters.isEmpty() ? List.of() : parameters.get(0)));
+                }
+            }
+        });
+    }
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws Exception {
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> call : calls().entrySet()) {
+            captured.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                call.getValue().run();
+                status.setRollbackOnly();
+            });
+            assertThat(captured).as("SQLs de %s", call.getKey()).isNotEmpty();
+            for (CapturedStatement statement : List.copyOf(captured)) {
+                if (!isInsertOrSequence(statement.sql())) {
+                    for (CapturedStatement inner : innerDataChanges(statement)) {
+                        plans.computeIfAbsent(call.getKey(), key -> new ArrayList<>()).add(explain(inner));
+                    }
+                }
+            }
+        }
+
+        plans.forEach((method, methodPlans) -> methodPlans.forEach(plan -> assertThat(plan.toLowerCase(Locale.ROOT))
+                .as("Plano de %s", method)
+                .doesNotContain("tablescan")));
+    }
+
+    @Test
+    void everyRepositoryMethodIsChecked() {
+        Set<String> checked = new TreeSet<>(calls().keySet().stream()
+                .map(key -> key.contains(" ") ? key.substring(0, key.indexOf(' ')) : key)
+                .collect(Collectors.toSet()));
+        checked.addAll(FULL_SCANS.keySet());
+
+        Set<String> declared = Stream.of(ProjectRepository.class, ProjectRepositoryCustom.class,
+                        TaskRepository.class, TaskRepositoryCustom.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertThat(checked).as("métodos de repositório sem checagem de plano").containsAll(declared);
+    }
+
+    /**
+     * Uma chamada por método (mais de uma quando o filtro muda a consulta), com ids do meio da massa.
+     * A consulta de tarefas só pelo título fica de fora: LIKE '%termo%' só tem índice no PostgreSQL (V5).
+     */
+    private Map<String, Runnable> calls() {
+        long id = PROJECTS / 2;
+        long taskId = id * TASKS_PER_PROJECT;
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("findPageAfter", () -> projectRepository.findPageAfter(id, null, null, null, Limit.of(51)));
+        calls.put("findPageAfter (status)", () -> projectRepository.findPageAfter(
+                id, ProjectStatus.FINALIZADO, null, null, Limit.of(51)).forEach(p -> p.getTasks().size()));
+        calls.put("findPageAfter (datas)", () -> projectRepository.findPageAfter(
+                id, null, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), Limit.of(51)));
+        calls.put("findVersionPageAfter", () -> projectRepository.findVersionPageAfter(
+                id, ProjectStatus.FINALIZADO, null, null, Limit.of(51)));
+        calls.put("findSummaryPageAfter", () -> projectRepository.findSummaryPageAfter(id, null, null, null, Limit.of(51)));
+        calls.put("findSummaryPageAfter (status)", () -> projectRepository.findSummaryPageAfter(
+                id, ProjectStatus.ABORTADO, null, null, Limit.of(51)));
+        calls.put("findSummariesByIdIn", () -> projectRepository.findSummariesByIdIn(List.of(id, id + 1, id + 2)));
+        calls.put("findVersionsByIdIn", () -> projectRepository.findVersionsByIdIn(List.of(id, id + 1, id + 2)));
+        calls.put("findAllWithTasksByIdIn", () -> projectRepository.findAllWithTasksByIdIn(List.of(id, id + 1, id + 2)));
+        calls.put("findSummariesByStatus", () -> projectRepository.findSummariesByStatus(ProjectStatus.FINALIZADO));
+        calls.put("findByStatus", () -> projectRepository.findByStatus(ProjectStatus.FINALIZADO));
+        calls.put("findVersionsByStatus", () -> projectRepository.findVersionsByStatus(ProjectStatus.FINALIZADO));
+        calls.put("findAllFinishedProjects", () -> projectRepository.findAllFinishedProjects());
+        calls.put("incrementVersion", () -> projectRepository.incrementVersion(id));
+        calls.put("updateStatusReturning", () -> projectRepository.updateStatusReturning(
+                List.of(id, id + 1), ProjectStatus.ABORTADO));
+        calls.put("lockStatuses", () -> projectRepository.lockStatuses(List.of(id, id + 1)));
+        calls.put("deleteById (cascata)", () -> projectRepository.deleteById(id));
+        calls.put("lockById", () -> projectRepository.lockById(id));
+        calls.put("updateReturningPreviousStatus", () -> projectRepository.updateReturningPreviousStatus(
+                id, projectRepository.findById(id + 1).orElseThrow(), 0L));
+        calls.put("updateStatusReturningPreviousStatus", () -> projectRepository.updateStatusReturningPreviousStatus(
+                id, ProjectStatus.ABORTADO, null));
+        calls.put("deleteByIdNative", () -> {
+            taskRepository.deleteByProjectReturningCounts(id, null);
+            projectRepository.deleteByIdNative(id);
+        });
+
+        calls.put("findAllByProjectId", () -> taskRepository.findAllByProjectId(id));
+        calls.put("findAllByStatus", () -> taskRepository.findAllByStatus("FINALIZADO"));
+        calls.put("findByIdNative", () -> taskRepository.findByIdNative(taskId));
+        calls.put("updateStatusReturning (tarefas, status atual)", () -> taskRepository.updateStatusReturning(
+                id, null, TaskStatus.PLANEJADO, TaskStatus.ABORTADO));
+        calls.put("updateStatusReturning (tarefas, ids)", () -> taskRepository.updateStatusReturning(
+                id, List.of(taskId, taskId - 1), null, TaskStatus.ABORTADO));
+        calls.put("lockStatuses (tarefas, status atual)", () -> taskRepository.lockStatuses(
+                id, null, TaskStatus.PLANEJADO));
+        calls.put("lockStatuses (tarefas, ids)", () -> taskRepository.lockStatuses(
+                id, List.of(taskId, taskId - 1), null));
+        calls.put("updateReturningPrevious (tarefa)", () -> taskRepository.updateReturningPrevious(
+                taskId, taskRepository.findByIdNative(taskId - 1), null));
+        calls.put("updateStatusReturningPrevious (tarefa)", () -> taskRepository.updateStatusReturningPrevious(
+                taskId, TaskStatus.ABORTADO, 0L));
+        calls.put("deleteByProjectReturningCounts", () -> taskRepository.deleteByProjectReturningCounts(id, null));
+        calls.put("deleteByProjectReturningCounts (lote)", () -> taskRepository.deleteByProjectReturningCounts(id, 2));
+        calls.put("findPage (tarefas, sem filtro)", () -> taskRepository.findPage(
+                TaskCriteria.builder().build(), null, taskId, 51));
+        calls.put("findPage (tarefas, projeto)", () -> taskRepository.findPage(
+                TaskCriteria.builder().projectId(id).build(), null, null, 51));
+        calls.put("findPage (tarefas, projeto e status)", () -> taskRepository.findPage(
+                TaskCriteria.builder().projectId(id).status(TaskStatus.FINALIZADO).build(), null, null, 51));
+        calls.put("findPage (tarefas, status e título)", () -> taskRepository.findPage(
+                TaskCriteria.builder().status(TaskStatus.ABORTADO).title("tarefa 1").build(), null, taskId, 51));
+        calls.put("findPage (tarefas, responsável, status e prazo)", () -> taskRepository.findPage(
+                TaskCriteria.builder().responsible(TaskResponsible.PLO).status(TaskStatus.PLANEJADO)
+                        .dueDaysTo(7).build(), null, taskId, 51));
+        calls.put("findPage (tarefas, responsável)", () -> taskRepository.findPage(
+                TaskCriteria.builder().responsible(TaskResponsible.GFU).build(), null, null, 51));
+        calls.put("findPage (tarefas, faixa de prazo, ordem por prazo)", () -> taskRepository.findPage(
+                TaskCriteria.builder().dueDaysFrom(3).dueDaysTo(6).orderByDueDays(true).build(), 5, taskId, 51));
+        calls.put("findPage (tarefas, ordem por prazo, sem prazo)", () -> taskRepository.findPage(
+                TaskCriteria.builder().orderByDueDays(true).build(), null, taskId, 51));
+        return calls;
+    }
+
+    private static boolean isInsertOrSequence(String sql) {
+        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("insert") || normalized.contains("next value for") || normalized.contains("nextval");
+    }
+
+    private String explain(CapturedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (ParameterSetOperation parameter : statement.parameters()) {
+                parameter.getMethod().invoke(explain, parameter.getArgs());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    /**
+     * No H2 o {@code UPDATE/DELETE ... RETURNING} vira {@code SELECT ... FROM FINAL/OLD TABLE (UPDATE/DELETE ...)},
+     * cujo plano só mostra a varredura da tabela delta. Explica cada comando de dentro (as escritas em tarefas
+     * também têm o UPDATE do projeto), com os parâmetros que caem nele, renumerados.
+     */
+    private static List<CapturedStatement> innerDataChanges(CapturedStatement statement) {
+        String sql = statement.sql();
+        String lower = sql.toLowerCase(Locale.ROOT);
+        List<CapturedStatement> inner = new ArrayList<>();
+        for (String delta : List.of("final table (", "old table (")) {
+            for (int start = lower.indexOf(delta); start >= 0; start = lower.indexOf(delta, start + 1)) {
+                int from = start + delta.length();
+                int to = closingParenthesis(sql, from);
+                int offset = countParameters(sql.substring(0, from));
+                int count = countParameters(sql.substring(from, to));
+                List<ParameterSetOperation> parameters = new ArrayList<>();
+                for (ParameterSetOperation parameter : statement.parameters()) {
+                    Object[] args = parameter.getArgs().clone();
+                    int index = (Integer) args[0];
+                    if (index > offset && index <= offset + count) {
+                        args[0] = index - offset;
+                        parameters.add(new ParameterSetOperation(parameter.getMethod(), args));
+                    }
+                }
+                inner.add(new CapturedStatement(sql.substring(from, to), parameters));
+            }
+        }
+        return inner.isEmpty() ? List.of(statement) : inner;
+    }
+
+    private static int closingParenthesis(String sql, int from) {
+        int depth = 1;
+        for (int i = from; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Parênteses sem fechamento: " + sql);
+    }
+
+    private static int countParameters(String sql) {
+        return (int) sql.chars().filter(c -> c == '?').count();
+    }
+}
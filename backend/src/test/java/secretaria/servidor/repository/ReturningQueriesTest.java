@@ -0,0 +1,74 @@
+package secretaria.servidor.repository;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Formato do SQL do PostgreSQL, que os testes (em H2) não executam.
+ */
+class ReturningQueriesTest {
+
+    private final ReturningQueries postgres = new ReturningQueries(new PostgreSQLDialect());
+
+    @Test
+    void postgresReturnsTheUpdatedRows() {
+        assertThat(postgres.returningAll("UPDATE project SET status = :status WHERE id IN (:ids)"))
+                .isEqualTo("UPDATE project SET status = :status WHERE id IN (:ids) RETURNING *");
+    }
+
+    @Test
+    void postgresTaskUpdatesBumpTheProjectOnlyWhenARowChanged() {
+        assertThat(postgres.returningAllTouchingProject("UPDATE task SET status = :status WHERE project_id = :projectId"))
+                .isEqualTo("WITH updated AS (UPDATE task SET status = :status WHERE project_id = :projectId RETURNING *),"
+                        + " touched AS (UPDATE project SET version = version + 1"
+                        + " WHERE EXISTS (SELECT 1 FROM updated) AND id IN (SELECT project_id FROM updated))"
+                        + " SELECT * FROM updated");
+    }
+
+    @Test
+    void postgresReturnsThePreviousRowsLockedInsideTheUpdate() {
+        assertThat(postgres.updateReturningPreviousTouchingProject("task", "status = :status", "target.id = :taskId"))
+                .isEqualTo("WITH updated AS (UPDATE task target SET status = :status"
+                        + " FROM (SELECT * FROM task target WHERE target.id = :taskId FOR UPDATE) previous"
+                        + " WHERE target.id = previous.id RETURNING previous.*),"
+                        + " touched AS (UPDATE project SET version = version + 1"
+                        + " WHERE EXISTS (SELECT 1 FROM updated) AND id IN (SELECT project_id FROM updated))"
+                        + " SELECT * FROM updated");
+    }
+
+    @Test
+    void postgresReturnsTheNewRowWithThePreviousStatus() {
+        assertThat(postgres.updateReturningWithPreviousStatus("project", "status = :status", "target.id = :projectId"))
+                .isEqualTo("UPDATE project target SET status = :status"
+                        + " FROM (SELECT id, status FROM project target WHERE target.id = :projectId FOR UPDATE) previous"
+                        + " WHERE target.id = previous.id RETURNING target.*, previous.status AS previous_status");
+        assertThat(postgres.singleStatement()).isTrue();
+    }
+
+    @Test
+    void postgresSelectsFromTheDeletedRows() {
+        assertThat(postgres.selectFromDeleted("DELETE FROM task WHERE project_id = :projectId",
+                "SELECT status, COUNT(*) AS total", "GROUP BY status"))
+                .isEqualTo("WITH deleted AS (DELETE FROM task WHERE project_id = :projectId RETURNING *)"
+                        + " SELECT status, COUNT(*) AS total FROM deleted GROUP BY status");
+    }
+
+    @Test
+    void h2UsesPlainStatementsForTheProject() {
+        ReturningQueries h2 = new ReturningQueries(new H2Dialect());
+        assertThat(h2.singleStatement()).isFalse();
+        assertThat(h2.returningAllTouchingProject("UPDATE task SET status = 'X'"))
+                .isEqualTo("SELECT * FROM FINAL TABLE (UPDATE task SET status = 'X')");
+    }
+
+    @Test
+    void otherDatabasesFailWhenCreated() {
+        assertThatThrownBy(() -> new ReturningQueries(new MySQLDialect()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package secretaria.servidor.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import secretaria.servidor.event.ChangeType;
+import secretaria.servidor.event.ProjectChangedEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectSearchIndexTest {
+
+    private ProjectSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProjectSearchIndex();
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 1L, "Reforma da Sede", null, null, 0L));
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 2L, "Gestão Orçamentária 2025", null, null, 0L));
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 3L, "Orçamento", null, null, 0L));
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 4L, "Revisão do orçamento anual", null, null, 0L));
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertThat(index.search("GESTAO orcamentaria", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenContains() {
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 5L, "Orçamento Participativo", null, null, 0L));
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, 6L, "Reorçamentação", null, null, 0L));
+
+        assertThat(index.search("orçamento", 10)).containsExactly(3L, 5L, 4L);
+        assertThat(index.search("orcament", 10)).containsExactly(3L, 5L, 2L, 4L, 6L);
+    }
+
+    @Test
+    void respectsLimit() {
+        assertThat(index.search("orcament", 2)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shortQueriesStillMatch() {
+        assertThat(index.search("se", 10)).containsExactly(1L);
+        assertThat(index.search("r", 10)).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.UPDATED, 1L, "Mudança de Sede", null, null, 0L));
+        assertThat(index.search("reforma", 10)).isEmpty();
+        assertThat(index.search("mudanca", 10)).containsExactly(1L);
+
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.DELETED, 3L, "Orçamento", null, null, 0L));
+        assertThat(index.search("orcamento", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void acceptsIdsBeyondTheIntRange() {
+        long big = Integer.MAX_VALUE + 10L;
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.CREATED, big, "Orçamento Federal", null, null, 0L));
+        assertThat(index.search("orcamento federal", 10)).containsExactly(big);
+
+        index.onProjectChanged(new ProjectChangedEvent(ChangeType.DELETED, big, "Orçamento Federal", null, null, 0L));
+        assertThat(index.search("federal", 10)).isEmpty();
+    }
+}